@@ -0,0 +1,56 @@
+package gamengine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gamengine.gfx.Colors;
+
+/**
+ * Benchmarks for turning a frame of palette indices into RGB pixels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaletteBenchmark {
+
+    @Param({"320x240", "640x360"})
+    public String size;
+
+    private int width;
+    private int height;
+    private byte[] indices;
+    private int[] colors;
+    private int[] pixels;
+
+    @Setup
+    public void setup() {
+        this.width = Integer.parseInt(this.size.substring(0, this.size.indexOf('x')));
+        this.height = Integer.parseInt(this.size.substring(this.size.indexOf('x') + 1));
+        this.indices = new byte[this.width * this.height];
+        for (int i = 0; i < this.indices.length; i++) {
+            this.indices[i] = (byte)(i * 31 % 216);
+        }
+        this.colors = Colors.getPalette();
+        this.pixels = new int[this.width * this.height];
+    }
+
+    @Benchmark
+    public int[] convert() {
+        Game.convert(this.indices, this.width, this.height, this.colors, this.pixels, this.width);
+        return this.pixels;
+    }
+}
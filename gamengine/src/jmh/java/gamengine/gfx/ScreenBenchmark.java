@@ -0,0 +1,158 @@
+package gamengine.gfx;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for drawing sprites, boxes and fills to a 320x240 {@link Screen}
+ * <p>Every benchmark draws a full screen worth of work, so the score is roughly the cost per frame</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenBenchmark {
+
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+
+    private Screen screen;
+    private int color;
+    private Rect[] boxes;
+    private Rect[] sprites;
+    private Rect[] scene;
+    private Screen deferred;
+    private Screen parallel;
+
+    @Setup
+    public void setup() {
+        this.screen = new Screen(WIDTH, HEIGHT, Sheets.create());
+        this.color = Colors.get(-1, 100, 333, 555);
+
+        this.boxes = new Rect[WIDTH / 16 * (HEIGHT / 16)];
+        this.sprites = new Rect[this.boxes.length];
+        for (int i = 0; i < this.boxes.length; i++) {
+            int x = i % (WIDTH / 16) * 16;
+            int y = i / (WIDTH / 16) * 16;
+            this.boxes[i] = new Rect(x, y, 16, 16, Colors.get(i % 6 * 100 + i / 6 % 6 * 10 + i / 36 % 6), false);
+            this.sprites[i] = new Rect(x, y, 16, 16, this.color, i % 1024, 2, false);
+        }
+
+        this.deferred = new Screen(WIDTH, HEIGHT, Sheets.create());
+        this.deferred.setDeferred(true);
+        this.parallel = new Screen(WIDTH, HEIGHT, Sheets.create());
+        this.parallel.setDeferred(true);
+        this.parallel.setThreads(Runtime.getRuntime().availableProcessors());
+        this.scene = new Rect[4000];
+        for (int i = 0; i < this.scene.length; i++) {
+            int x = (i * 37) % (WIDTH * 4) - WIDTH * 2;
+            int y = (i * 53) % (HEIGHT * 4) - HEIGHT * 2;
+            this.scene[i] = new Rect(x, y, 8, 8, this.color, i % 64, 1, true);
+        }
+    }
+
+    @Benchmark
+    public byte[] renderTiles() {
+        for (int y = 0; y < HEIGHT; y += 8) {
+            for (int x = 0; x < WIDTH; x += 8) {
+                this.screen.render(x, y, (x + y) & 1023, this.color);
+            }
+        }
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] renderScaled() {
+        for (int y = 0; y < HEIGHT; y += 32) {
+            for (int x = 0; x < WIDTH; x += 32) {
+                this.screen.render(x, y, (x + y) & 1023, this.color, 4);
+            }
+        }
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] renderScaledParallel() {
+        for (int y = 0; y < HEIGHT; y += 32) {
+            for (int x = 0; x < WIDTH; x += 32) {
+                this.parallel.render(x, y, (x + y) & 1023, this.color, 4);
+            }
+        }
+        this.parallel.flush();
+        return this.parallel.getPixels();
+    }
+
+    @Benchmark
+    public byte[] renderMirrored() {
+        for (int y = 0; y < HEIGHT; y += 8) {
+            for (int x = 0; x < WIDTH; x += 8) {
+                this.screen.render(x, y, (x + y) & 1023, this.color, (x & 8) == 0, (y & 8) == 0);
+            }
+        }
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] renderClipped() {
+        for (int y = -8; y < HEIGHT; y += 16) {
+            this.screen.render(-8, y, y & 1023, this.color, false, false, 2, false);
+            this.screen.render(WIDTH - 8, y, y & 1023, this.color, false, false, 2, false);
+        }
+        for (int x = -8; x < WIDTH; x += 16) {
+            this.screen.render(x, -8, x & 1023, this.color, false, false, 2, false);
+            this.screen.render(x, HEIGHT - 8, x & 1023, this.color, false, false, 2, false);
+        }
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] renderSceneImmediate() {
+        for (Rect rect: this.scene) {
+            rect.render(this.screen);
+        }
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] renderSceneDeferred() {
+        for (Rect rect: this.scene) {
+            rect.render(this.deferred);
+        }
+        this.deferred.flush();
+        return this.deferred.getPixels();
+    }
+
+    @Benchmark
+    public byte[] fill() {
+        this.screen.fill(Colors.get(123));
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] rectRenderBox() {
+        for (Rect box: this.boxes) {
+            box.render(this.screen);
+        }
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] rectRenderSprite() {
+        for (Rect sprite: this.sprites) {
+            sprite.render(this.screen);
+        }
+        return this.screen.getPixels();
+    }
+}
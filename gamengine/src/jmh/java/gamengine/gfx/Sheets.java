@@ -0,0 +1,26 @@
+package gamengine.gfx;
+
+/**
+ * Builds the {@link SpriteSheet} used by the benchmarks, so no image has to be loaded
+ */
+final class Sheets {
+
+    private Sheets() {
+
+    }
+
+    /**
+     * Used to get a 256x256 sheet where every sprite has a different mix of all four shades
+     *
+     * @return the sprite sheet
+     */
+    static SpriteSheet create() {
+        int[] pixels = new int[256 * 256];
+        for (int y = 0; y < 256; y++) {
+            for (int x = 0; x < 256; x++) {
+                pixels[x + y * 256] = (x * 7 + y * 3 + (x >> 3) * (y >> 3)) & 3;
+            }
+        }
+        return new SpriteSheet(256, 256, pixels);
+    }
+}
@@ -0,0 +1,79 @@
+package gamengine.gfx;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for drawing text with {@link Font} and {@link TextBox}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBenchmark {
+
+    private static final String TEXT = "The quick brown fox\njumps over the lazy dog\nScore 1234567890";
+
+    private Screen screen;
+    private int color;
+    private TextBox textBox;
+    private TextLayout layout;
+    private long score = 1234567890L;
+
+    @Setup
+    public void setup() {
+        this.screen = new Screen(320, 240, Sheets.create());
+        this.color = Colors.get(-1, -1, -1, 555);
+        this.textBox = new TextBox(8, 8, 304, 64, Colors.get(1), 1, this.color, null, null);
+        this.textBox.setText(TEXT);
+        this.layout = new TextLayout(TEXT, 1);
+    }
+
+    @Benchmark
+    public byte[] fontRender() {
+        Font.render(TEXT, this.screen, 8, 8, this.color, false);
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] fontRenderScaled() {
+        Font.render(TEXT, this.screen, 8, 8, this.color, 3, false);
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] layoutRender() {
+        this.layout.render(this.screen, 8, 8, this.color, false);
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] numberRender() {
+        Font.render(this.score, this.screen, 8, 8, this.color, 1, false);
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] numberRenderString() {
+        Font.render(Long.toString(this.score), this.screen, 8, 8, this.color, false);
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] textBoxRender() {
+        this.textBox.render(this.screen);
+        return this.screen.getPixels();
+    }
+}
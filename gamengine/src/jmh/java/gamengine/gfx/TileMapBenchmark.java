@@ -0,0 +1,69 @@
+package gamengine.gfx;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for drawing the visible part of a 1000x1000 tile level, tile by tile and with a {@link TileMap}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileMapBenchmark {
+
+    private static final int TILES = 1000;
+
+    private Screen screen;
+    private TileMap map;
+    private int color;
+    private int frame = 0;
+
+    @Setup
+    public void setup() {
+        this.screen = new Screen(320, 240, Sheets.create());
+        this.color = Colors.get(0, 100, 333, 555);
+        this.map = new TileMap(TILES, TILES);
+        for (int y = 0; y < TILES; y++) {
+            for (int x = 0; x < TILES; x++) {
+                this.map.setTile(x, y, (x * 7 + y) & 63, this.color);
+            }
+        }
+    }
+
+    private void moveCamera() {
+        this.frame++;
+        this.screen.xOffset = this.frame % 64;
+        this.screen.yOffset = this.frame % 48;
+    }
+
+    @Benchmark
+    public byte[] renderEveryTile() {
+        this.moveCamera();
+        for (int y = 0; y < TILES; y++) {
+            for (int x = 0; x < TILES; x++) {
+                this.screen.render(x * 8, y * 8, (x * 7 + y) & 63, this.color);
+            }
+        }
+        return this.screen.getPixels();
+    }
+
+    @Benchmark
+    public byte[] renderTileMap() {
+        this.moveCamera();
+        this.map.render(this.screen);
+        return this.screen.getPixels();
+    }
+}
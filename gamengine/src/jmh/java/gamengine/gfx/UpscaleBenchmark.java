@@ -0,0 +1,69 @@
+package gamengine.gfx;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for scaling a frame up to the window size, with {@link Graphics#drawImage} and with {@link Upscaler}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpscaleBenchmark {
+
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+
+    @Param({"2", "3", "4"})
+    public int scale;
+
+    private BufferedImage image;
+    private byte[] indices;
+    private int[] colors;
+    private BufferedImage scaledImage;
+    private int[] scaledPixels;
+
+    @Setup
+    public void setup() {
+        this.image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_INDEXED, Colors.getColorModel());
+        this.indices = ((DataBufferByte)this.image.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < this.indices.length; i++) {
+            this.indices[i] = (byte)(i * 31 % 216);
+        }
+        this.colors = Colors.getPalette();
+        this.scaledImage = new BufferedImage(WIDTH * this.scale, HEIGHT * this.scale, BufferedImage.TYPE_INT_RGB);
+        this.scaledPixels = ((DataBufferInt)this.scaledImage.getRaster().getDataBuffer()).getData();
+    }
+
+    @Benchmark
+    public int[] drawImage() {
+        Graphics g = this.scaledImage.getGraphics();
+        g.drawImage(this.image, 0, 0, WIDTH * this.scale, HEIGHT * this.scale, null);
+        g.dispose();
+        return this.scaledPixels;
+    }
+
+    @Benchmark
+    public int[] upscaler() {
+        Upscaler.scale(this.indices, WIDTH, HEIGHT, this.colors, this.scaledPixels, this.scale);
+        return this.scaledPixels;
+    }
+}
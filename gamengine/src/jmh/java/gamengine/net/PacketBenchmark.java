@@ -0,0 +1,148 @@
+package gamengine.net;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the way {@link GameServer} and {@link GameClient} turn a {@link Packet} into bytes and back, the same position update as a {@link BinaryPacket}, and a {@link Snapshot} of 1000 entities sent in full or as a delta
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketBenchmark {
+
+    private static class PositionPacket extends Packet {
+
+        private PositionPacket(String data) {
+            super("02", data);
+        }
+
+        public void init(String data) {
+
+        }
+    }
+
+    private static class PositionUpdate extends BinaryPacket {
+
+        private int entity;
+        private float x;
+        private float y;
+        private int angle;
+        private boolean moving;
+        private boolean firing;
+
+        public void write(PacketWriter out) {
+            out.writeVarInt(this.entity);
+            out.writeFloat(this.x);
+            out.writeFloat(this.y);
+            out.writeVarInt(this.angle);
+            out.writeBoolean(this.moving);
+            out.writeBoolean(this.firing);
+        }
+
+        public void read(PacketReader in) {
+            this.entity = in.readVarInt();
+            this.x = in.readFloat();
+            this.y = in.readFloat();
+            this.angle = in.readVarInt();
+            this.moving = in.readBoolean();
+            this.firing = in.readBoolean();
+        }
+    }
+
+    private Packet packet;
+    private byte[] received;
+    private PositionUpdate update;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private PacketWriter writer = new PacketWriter();
+    private PacketReader reader = new PacketReader();
+    private Snapshot baseline;
+    private Snapshot snapshot;
+    private ByteBuffer snapshotBuffer;
+
+    @Setup
+    public void setup() {
+        this.packet = new PositionPacket("17,1024.5,768.25,90,true,false");
+        this.received = new byte[1024];
+        byte[] encoded = this.packet.encode();
+        System.arraycopy(encoded, 0, this.received, 0, encoded.length);
+
+        this.update = new PositionUpdate();
+        this.update.entity = 17;
+        this.update.x = 1024.5f;
+        this.update.y = 768.25f;
+        this.update.angle = 90;
+        this.update.moving = true;
+        this.buffer = ByteBuffer.allocateDirect(1024);
+        this.encoded = ByteBuffer.allocateDirect(1024);
+        this.update.write(new PacketWriter(this.encoded));
+        this.encoded.flip();
+
+        this.baseline = new Snapshot(3000);
+        for (int i = 0; i < 3000; i++) {
+            this.baseline.set(i, i * 7);
+        }
+        this.snapshot = new Snapshot(3000);
+        this.snapshot.copy(this.baseline);
+        for (int i = 0; i < 3000; i += 300) {
+            this.snapshot.set(i, i * 7 + 3);
+        }
+        this.snapshotBuffer = ByteBuffer.allocateDirect(Transport.MAX_DATAGRAM_SIZE);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return this.packet.encode();
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        String message = Packet.decodeMessage(this.received, this.received.length);
+        blackhole.consume(Packet.decodeId(message));
+        blackhole.consume(Packet.decodeData(message));
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary() {
+        this.buffer.clear();
+        this.update.write(this.writer.wrap(this.buffer));
+        return this.buffer;
+    }
+
+    @Benchmark
+    public PositionUpdate decodeBinary() {
+        this.encoded.position(0);
+        this.update.read(this.reader.wrap(this.encoded));
+        return this.update;
+    }
+
+    @Benchmark
+    public ByteBuffer encodeSnapshotFull() {
+        this.snapshotBuffer.clear();
+        this.snapshot.writeDelta(this.writer.wrap(this.snapshotBuffer), null);
+        return this.snapshotBuffer;
+    }
+
+    @Benchmark
+    public ByteBuffer encodeSnapshotDelta() {
+        this.snapshotBuffer.clear();
+        this.snapshot.writeDelta(this.writer.wrap(this.snapshotBuffer), this.baseline);
+        return this.snapshotBuffer;
+    }
+}
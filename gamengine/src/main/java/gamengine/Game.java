@@ -1,19 +1,36 @@
 package gamengine;
 
 import java.awt.BorderLayout;
+import java.awt.BufferCapabilities;
 import java.awt.Canvas;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import javax.swing.JFrame;
 
+import gamengine.gfx.Colors;
+import gamengine.gfx.DirtyRegions;
+import gamengine.gfx.Font;
 import gamengine.gfx.Screen;
 import gamengine.gfx.SpriteSheet;
+import gamengine.gfx.Upscaler;
+import gamengine.inp.InputRecorder;
+import gamengine.inp.InputReplay;
 import gamengine.inp.KeyHandler;
 import gamengine.inp.MouseHandler;
+import gamengine.time.FramePacer;
+import gamengine.time.FrameStats;
+import gamengine.time.Histogram;
+import gamengine.time.FrameStats.Phase;
+import gamengine.time.ParkPacer;
 
 /**
  * A class that is the foundation for a Java 2D game
@@ -34,8 +51,19 @@ public abstract class Game extends Canvas implements Runnable {
     public int SCALE;
     /**
      * The desired frames per second
+     * <p>Use 0 or less to render as fast as possible</p>
      */
     public int FPS;
+    /**
+     * The desired ticks per second
+     * <p>Use 0 or less to tick as fast as possible</p>
+     */
+    public int TPS;
+    /**
+     * The most ticks that are run to catch up before a frame is rendered
+     * <p>Any time beyond this is dropped instead of being ticked later</p>
+     */
+    public int MAX_CATCH_UP = 5;
     /**
      * The title of the window
      */
@@ -44,32 +72,140 @@ public abstract class Game extends Canvas implements Runnable {
     /**
      * A boolean that represents the state of the game
      */
-    private boolean running = false;
+    private volatile boolean running = false;
+    /**
+     * A boolean that represents if the game runs without a window
+     */
+    private boolean headless;
+    /**
+     * The tick and frame timings of the game
+     */
+    private FrameStats stats = new FrameStats();
+    /**
+     * A boolean that represents if the stats are drawn over each frame
+     */
+    private boolean statsOverlay = false;
+    /**
+     * The text of the stats overlay, reused so drawing it doesn't make new strings
+     */
+    private StringBuilder statsText = new StringBuilder();
+    /**
+     * The recorder that the input of every tick is written to, if any
+     */
+    private InputRecorder recorder;
+    /**
+     * The replay that the input of every tick is taken from, if any
+     */
+    private InputReplay replay;
+    /**
+     * Every phase of a frame, kept so the stats overlay doesn't copy {@link Phase#values()} each frame
+     */
+    private static final Phase[] PHASES = Phase.values();
+    /**
+     * The number of ticks that were skipped to catch up
+     */
+    private long droppedTicks = 0;
+    /**
+     * The time in nanoseconds that was skipped to catch up
+     */
+    private long droppedTime = 0;
+
+    /**
+     * A boolean that represents if frames are presented on a separate thread
+     */
+    private boolean pipelined = false;
+    /**
+     * The thread that presents frames when the game is pipelined
+     */
+    private Thread renderThread;
+    /**
+     * The three images that are passed between the game thread and the render thread
+     */
+    private BufferedImage[] buffers;
+    /**
+     * The buffer that the game thread is drawing into
+     */
+    private int backBuffer;
+    /**
+     * The buffer that the render thread is presenting
+     */
+    private int frontBuffer;
+    /**
+     * The latest finished buffer, with {@link Game#FRESH} set until the render thread takes it
+     */
+    private AtomicInteger readyBuffer = new AtomicInteger();
+    private static final int FRESH = 4;
     /**
-     * The number of ticks
+     * The regions that changed in each buffer since the last buffer the render thread took
      */
-    private int ticks = 0;
+    private DirtyRegions[] bufferRegions;
     /**
-     * The number of frames
+     * The regions that changed since the last buffer that is known to be taken by the render thread
      */
-    private int frames = 0;
+    private DirtyRegions untaken;
+
+    /**
+     * The regions that were drawn by each of the last frames, one for every buffer in the {@link BufferStrategy}
+     */
+    private DirtyRegions[] shownRegions = new DirtyRegions[3];
+    /**
+     * The index of the oldest frame in {@code shownRegions}
+     */
+    private int shownIndex = 0;
+    /**
+     * If the window was cleared by AWT, like when it is first shown or uncovered, so the next frames have to be drawn in full
+     */
+    private volatile boolean exposed = true;
+    /**
+     * The regions that need to be drawn to the window's next buffer
+     */
+    private DirtyRegions drawRegions;
+
+    /**
+     * The {@link FramePacer} that waits between ticks
+     */
+    private FramePacer pacer = new ParkPacer();
 
     /**
      * The window
      */
     private JFrame frame;
     /**
-     * The buffer system that draws to the screen
+     * The indexed image that the {@code screen} draws into
      */
     private BufferedImage image;
     /**
-     * An array of all the pixels on the screen
+     * The image that was presented last
+     */
+    private volatile BufferedImage presented;
+    /**
+     * The palette that turns the {@code screen}'s color codes into colors
+     */
+    private IndexColorModel colorModel = Colors.getColorModel();
+    /**
+     * An array of all the RGB pixels on the screen, only filled by {@link Game#getPixels()}
      */
     private int[] pixels;
     /**
      * An array of all the possible pixel colors
      */
-    private int[] colors = new int[6 * 6 * 6];
+    private int[] colors = Colors.getPalette();
+    /**
+     * If frames are scaled by {@link Upscaler} before being drawn to the window
+     */
+    private boolean upscaled = true;
+    /**
+     * The RGB image that {@link Upscaler} scales frames into, only made when it is first needed
+     */
+    private BufferedImage scaledImage;
+    /**
+     * The pixels of {@code scaledImage}
+     */
+    private int[] scaledPixels;
+    /**
+     * If {@code scaledImage} is missing changes, so it has to be scaled fully again
+     */
+    private boolean scaledStale = true;
 
     /**
      * The {@link Screen} that renders pixel data
@@ -97,42 +233,57 @@ public abstract class Game extends Canvas implements Runnable {
      * @param spriteSheetPath the path to the sprite sheet
      */
     public Game(int width, int height, int scale, int fps, String name, String spriteSheetPath) {
+        this(width, height, scale, fps, name, spriteSheetPath, false);
+    }
+
+    /**
+     * Used for instantiating a {@link Game}
+     * <p>A headless game never creates a window, so it can run on machines without a display</p>
+     * <p>Use an {@code fps} of 0 or less to tick and render as fast as possible</p>
+     * <p>The tick rate starts equal to {@code fps} and can be changed with {@code TPS} before the game starts</p>
+     *
+     * @param width the width of the game window
+     * @param height the height of the game window
+     * @param scale the ratio of screen pixels to in-game pixels
+     * @param fps the desired frames per second for the game
+     * @param name the title of the window/game
+     * @param spriteSheetPath the path to the sprite sheet
+     * @param headless if the game should run without a window
+     */
+    public Game(int width, int height, int scale, int fps, String name, String spriteSheetPath, boolean headless) {
         this.WIDTH = width;
         this.HEIGHT = height;
         this.SCALE = scale;
         this.FPS = fps;
+        this.TPS = fps;
         this.NAME = name;
+        this.headless = headless;
 
-        this.image = new BufferedImage(this.WIDTH, this.HEIGHT, BufferedImage.TYPE_INT_RGB);
-        this.pixels = ((DataBufferInt)this.image.getRaster().getDataBuffer()).getData();
+        this.image = this.createImage();
+        this.presented = this.image;
+        this.pixels = new int[this.WIDTH * this.HEIGHT];
 
         this.setMinimumSize(new Dimension(this.WIDTH * this.SCALE, this.HEIGHT * this.SCALE));
         this.setMaximumSize(new Dimension(this.WIDTH * this.SCALE, this.HEIGHT * this.SCALE));
         this.setPreferredSize(new Dimension(this.WIDTH * this.SCALE, this.HEIGHT * this.SCALE));
 
-        this.frame = new JFrame(this.NAME);
-        this.frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        this.frame.setLayout(new BorderLayout());
-        this.frame.add(this, BorderLayout.CENTER);
-        this.frame.pack();
-        this.frame.setResizable(false);
-        this.frame.setLocationRelativeTo(null);
-        this.frame.setVisible(true);
-
-        int index = 0;
-        for (int r = 0; r < 6; r++) {
-            for (int g = 0; g < 6; g++) {
-                for (int b = 0; b < 6; b++) {
-                    int rr = r * 255 / 5;
-                    int gg = g * 255 / 5;
-                    int bb = b * 255 / 5;
-
-                    this.colors[index++] = rr << 16 | gg << 8 | bb;
-                }
-            }
+        if (!this.headless) {
+            this.frame = new JFrame(this.NAME);
+            this.frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            this.frame.setLayout(new BorderLayout());
+            this.frame.add(this, BorderLayout.CENTER);
+            this.frame.pack();
+            this.frame.setResizable(false);
+            this.frame.setLocationRelativeTo(null);
+            this.frame.setVisible(true);
         }
 
-        this.screen = new Screen(this.WIDTH, this.HEIGHT, new SpriteSheet(spriteSheetPath));
+        this.screen = new Screen(this.WIDTH, this.HEIGHT, new SpriteSheet(spriteSheetPath), Game.getIndices(this.image));
+        for (int i = 0; i < this.shownRegions.length; i++) {
+            this.shownRegions[i] = new DirtyRegions(this.WIDTH, this.HEIGHT);
+            this.shownRegions[i].markFull();
+        }
+        this.drawRegions = new DirtyRegions(this.WIDTH, this.HEIGHT);
         this.keyboard = new KeyHandler(this);
         this.mouse = new MouseHandler(this);
     }
@@ -142,6 +293,21 @@ public abstract class Game extends Canvas implements Runnable {
      */
     public synchronized void start() {
         this.running = true;
+        if (this.pipelined) {
+            this.buffers = new BufferedImage[] {this.image, this.createImage(), this.createImage()};
+            this.bufferRegions = new DirtyRegions[this.buffers.length];
+            for (int i = 0; i < this.buffers.length; i++) {
+                this.bufferRegions[i] = new DirtyRegions(this.WIDTH, this.HEIGHT);
+                this.bufferRegions[i].markFull();
+            }
+            this.untaken = new DirtyRegions(this.WIDTH, this.HEIGHT);
+            this.untaken.markFull();
+            this.backBuffer = 0;
+            this.readyBuffer.set(1);
+            this.frontBuffer = 2;
+            this.renderThread = new Thread(this::renderLoop, this.NAME + " Renderer");
+            this.renderThread.start();
+        }
         new Thread(this).start();
     }
 
@@ -150,16 +316,28 @@ public abstract class Game extends Canvas implements Runnable {
      */
     public synchronized void stop() {
         this.running = false;
+        if (this.renderThread != null) {
+            LockSupport.unpark(this.renderThread);
+            this.renderThread = null;
+        }
+    }
+
+    /**
+     * Runs exactly one tick followed by one render on the calling thread
+     * <p>Useful for driving a headless game from tests or benchmarks</p>
+     */
+    public void step() {
+        this.gameTick();
+        this.gameRender(1);
+        this.stats.update(System.nanoTime());
     }
 
     public void run() {
         long lastTime = System.nanoTime();
-        double nsPerTick = 1000000000D / this.FPS;
-
-        this.ticks = 0;
-        this.frames = 0;
+        double nsPerTick = 1000000000D / this.TPS;
+        double nsPerFrame = 1000000000D / this.FPS;
 
-        long lastTimer = System.currentTimeMillis();
+        long nextFrame = lastTime;
         double delta = 0;
 
         while (this.running) {
@@ -167,24 +345,45 @@ public abstract class Game extends Canvas implements Runnable {
             delta += (now - lastTime) / nsPerTick;
             lastTime = now;
 
-            boolean shouldRender = false;
+            if (this.TPS <= 0) {
+                delta = 1;
+            }
 
+            int caughtUp = 0;
             while (delta >= 1) {
-                this.ticks++;
+                if (caughtUp >= this.MAX_CATCH_UP) {
+                    long dropped = (long)delta;
+                    this.droppedTicks += dropped;
+                    this.droppedTime += (long)(dropped * nsPerTick);
+                    delta -= dropped;
+                    break;
+                }
                 this.gameTick();
                 delta--;
-                shouldRender = true;
+                caughtUp++;
+            }
+
+            boolean shouldRender = this.FPS <= 0 || now - nextFrame >= 0;
+            if (shouldRender && this.FPS > 0) {
+                nextFrame += (long)nsPerFrame;
+                if (now - nextFrame >= 0) nextFrame = now + (long)nsPerFrame;
             }
 
             if (shouldRender) {
-                this.frames++;
-                this.gameRender();
+                double alpha = this.TPS <= 0 ? 1 : delta;
+                if (this.pipelined) {
+                    this.renderFrame(alpha);
+                    this.publish();
+                } else {
+                    this.gameRender(alpha);
+                }
             }
 
-            if (System.currentTimeMillis() - lastTimer >= 1000) {
-                lastTimer += 1000;
-                this.frames = 0;
-                this.ticks = 0;
+            this.stats.update(now);
+
+            if (this.TPS > 0 && this.FPS > 0) {
+                long nextTick = lastTime + (long)((1 - delta) * nsPerTick);
+                this.pacer.waitUntil(nextTick - nextFrame < 0 ? nextTick : nextFrame);
             }
         }
     }
@@ -201,48 +400,510 @@ public abstract class Game extends Canvas implements Runnable {
      */
     public abstract void render();
 
+    /**
+     * This function is called whenever the {@code screen} is to be rendered
+     * <p>{@code alpha} is how far the game is between its last two ticks, from 0 (the previous tick) to 1 (the latest tick)</p>
+     * <p>Override this instead of {@link Game#render()} to interpolate movement when rendering faster than {@code TPS}</p>
+     *
+     * @param alpha the interpolation factor between the previous and latest tick
+     */
+    public void render(double alpha) {
+        this.render();
+    }
+
     private void gameTick() {
+        long start = System.nanoTime();
+        this.pollInput();
         this.tick();
+        this.stats.record(Phase.TICK, System.nanoTime() - start);
+        this.stats.countTick();
     }
 
-    private void gameRender() {
-        BufferStrategy bs = this.getBufferStrategy();
-        if (bs == null) {
+    /**
+     * Gives the handlers the input of the next tick, from the replay when there is one, and records it when there is a recorder
+     */
+    private void pollInput() {
+        if (this.replay != null) {
+            try {
+                this.replay.next(this.keyboard, this.mouse);
+            } catch (IOException e) {
+                e.printStackTrace();
+                this.replay = null;
+            }
+        } else {
+            this.keyboard.poll();
+            this.mouse.poll();
+        }
+
+        if (this.recorder != null) {
+            try {
+                this.recorder.record(this.keyboard.getSnapshot(), this.mouse.getSnapshot());
+            } catch (IOException e) {
+                e.printStackTrace();
+                this.recorder = null;
+            }
+        }
+    }
+
+    private void gameRender(double alpha) {
+        if (!this.headless && this.getBufferStrategy() == null) {
             this.createBufferStrategy(3);
             return;
         }
 
-        this.render();
+        this.renderFrame(alpha);
+        this.present(this.image, this.screen.getDirtyRegions());
+        this.screen.getDirtyRegions().clear();
+    }
 
-        for (int y = 0; y < this.screen.getHeight(); y++) {
-            for (int x = 0; x < this.screen.getWidth(); x++) {
-                int colorCode = this.screen.getPixels()[x + y * this.screen.getWidth()];
-                if (colorCode < 255) this.pixels[x + y * this.WIDTH] = this.colors[colorCode];
+    /**
+     * Used to make an image that the {@code screen} can draw into
+     * 
+     * @return an indexed image with the size of the game
+     */
+    private BufferedImage createImage() {
+        return new BufferedImage(this.WIDTH, this.HEIGHT, BufferedImage.TYPE_BYTE_INDEXED, this.colorModel);
+    }
+
+    /**
+     * Used to get the color codes that back an indexed image
+     *
+     * @param image an image from {@link Game#createImage()}
+     * @return the color codes of the image
+     */
+    private static byte[] getIndices(BufferedImage image) {
+        return ((DataBufferByte)image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Turns palette indices into RGB pixels, leaving transparent pixels untouched
+     *
+     * @param indices the palette indices to convert
+     * @param width the width of {@code indices}
+     * @param height the height of {@code indices}
+     * @param colors the RGB value of every palette index
+     * @param pixels the RGB pixels to write to
+     * @param pixelsWidth the width of {@code pixels}
+     */
+    static void convert(byte[] indices, int width, int height, int[] colors, int[] pixels, int pixelsWidth) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int colorCode = indices[x + y * width] & 0xff;
+                if (colorCode < 255) pixels[x + y * pixelsWidth] = colors[colorCode];
             }
         }
+    }
+
+    /**
+     * Calls {@link Game#render(double)}, draws the stats overlay on top when it is enabled and flushes the {@code screen}
+     *
+     * @param alpha the interpolation factor between the previous and latest tick
+     */
+    private void renderFrame(double alpha) {
+        long start = System.nanoTime();
+        this.render(alpha);
+        if (this.statsOverlay) this.renderStats();
+        this.screen.flush();
+        this.stats.record(Phase.RENDER, System.nanoTime() - start);
+    }
+
+    /**
+     * Draws the tick and frame rates and the p50, p99 and max of every phase in microseconds
+     */
+    private void renderStats() {
+        int layer = this.screen.getLayer();
+        this.screen.setLayer(Short.MAX_VALUE);
+        int color = Colors.get(0, -1, -1, 555);
+        StringBuilder text = this.statsText;
+        text.setLength(0);
+        text.append(this.stats.getTicksPerSecond()).append(" TPS ").append(this.stats.getFramesPerSecond()).append(" FPS");
+        Font.render(text, this.screen, 0, 0, color, 1, false);
+        Font.render("US P50 P99 MAX", this.screen, 0, 8, color, false);
+
+        int y = 16;
+        for (Phase phase: Game.PHASES) {
+            Histogram histogram = this.stats.getHistogram(phase);
+            text.setLength(0);
+            text.append(phase.name()).append(' ').append(histogram.getP50() / 1000).append(' ').append(histogram.getP99() / 1000).append(' ').append(histogram.getMax() / 1000);
+            Font.render(text, this.screen, 0, y, color, 1, false);
+            y += 8;
+        }
+        this.screen.setLayer(layer);
+    }
+
+    /**
+     * Hands the finished {@code screen} to the render thread and gives the {@code screen} a new buffer to draw into
+     * <p>The new buffer starts as a copy of the finished one, so games that don't redraw everything still work</p>
+     * <p>Each buffer carries every region that changed since the last buffer the render thread is known to have taken,
+     * so frames the render thread skips don't lose their regions</p>
+     */
+    private void publish() {
+        DirtyRegions drawn = this.screen.getDirtyRegions();
+        DirtyRegions regions = this.bufferRegions[this.backBuffer];
+        regions.set(this.untaken);
+        regions.addAll(drawn);
+
+        byte[] finished = Game.getIndices(this.buffers[this.backBuffer]);
+        int previous = this.readyBuffer.getAndSet(this.backBuffer | FRESH);
+        this.backBuffer = previous & ~FRESH;
+
+        if ((previous & FRESH) != 0) {
+            this.untaken.addAll(drawn);
+        } else {
+            this.untaken.set(drawn);
+        }
+
+        byte[] next = Game.getIndices(this.buffers[this.backBuffer]);
+        System.arraycopy(finished, 0, next, 0, next.length);
+        this.screen.setPixels(next);
+        drawn.clear();
+
+        LockSupport.unpark(this.renderThread);
+    }
+
+    /**
+     * Presents every buffer that is published by the game thread until the game stops
+     */
+    private void renderLoop() {
+        while (this.running) {
+            if ((this.readyBuffer.get() & FRESH) == 0) {
+                LockSupport.parkNanos(this, 1000000L);
+                continue;
+            }
+            this.frontBuffer = this.readyBuffer.getAndSet(this.frontBuffer) & ~FRESH;
+
+            if (!this.headless && this.getBufferStrategy() == null) {
+                this.createBufferStrategy(3);
+                continue;
+            }
+
+            this.present(this.buffers[this.frontBuffer], this.bufferRegions[this.frontBuffer]);
+        }
+    }
+
+    /**
+     * Draws the changed regions of an indexed image to the window
+     * <p>When the window is {@code SCALE} times the size of the game, the changed regions are scaled by {@link Upscaler} and drawn without scaling, otherwise the {@link IndexColorModel} turns color codes into colors while drawing</p>
+     * <p>The window's buffers are reused every few frames, so the regions of the last few frames are drawn together</p>
+     * <p>The whole frame is drawn when the window was exposed, its buffers lost their contents, or flipping doesn't keep the contents of the buffers</p>
+     *
+     * @param image the image of the frame
+     * @param regions the regions that changed since the last presented frame
+     */
+    private void present(BufferedImage image, DirtyRegions regions) {
+        this.presented = image;
+
+        if (this.headless) {
+            this.stats.countFrame();
+            return;
+        }
+
+        long start = System.nanoTime();
+        BufferStrategy bs = this.getBufferStrategy();
+
+        this.shownRegions[this.shownIndex].set(regions);
+        this.shownIndex = (this.shownIndex + 1) % this.shownRegions.length;
+        boolean exposed = this.exposed;
+        this.exposed = false;
+        if (exposed || bs.contentsRestored() || bs.contentsLost() || !Game.keepsContents(bs)) {
+            for (DirtyRegions shown: this.shownRegions) {
+                shown.markFull();
+            }
+        }
+        this.drawRegions.clear();
+        for (DirtyRegions shown: this.shownRegions) {
+            this.drawRegions.addAll(shown);
+        }
+
+        if (this.upscaled && this.getWidth() == this.WIDTH * this.SCALE && this.getHeight() == this.HEIGHT * this.SCALE) {
+            this.presentScaled(bs, image, regions);
+            return;
+        }
+        this.scaledStale = true;
 
         Graphics g = bs.getDrawGraphics();
-        g.drawImage(this.image, 0, 0, this.getWidth(), this.getHeight(), null);
+        if (this.drawRegions.isFull()) {
+            g.drawImage(image, 0, 0, this.getWidth(), this.getHeight(), null);
+        } else {
+            for (int i = 0; i < this.drawRegions.getCount(); i++) {
+                int x = this.drawRegions.getX(i);
+                int y = this.drawRegions.getY(i);
+                int x1 = x + this.drawRegions.getWidth(i);
+                int y1 = y + this.drawRegions.getHeight(i);
+                g.drawImage(image, x * this.getWidth() / this.WIDTH, y * this.getHeight() / this.HEIGHT, x1 * this.getWidth() / this.WIDTH, y1 * this.getHeight() / this.HEIGHT, x, y, x1, y1, null);
+            }
+        }
         g.dispose();
+        long blitted = System.nanoTime();
+        this.stats.record(Phase.BLIT, blitted - start);
         
         bs.show();
+        this.stats.record(Phase.SHOW, System.nanoTime() - blitted);
+        this.stats.countFrame();
+    }
+
+    /**
+     * Used to find if the window's buffers keep what was drawn to them after they are shown, so only the changed regions have to be drawn again
+     *
+     * @param bs the window's buffers
+     * @return if the buffers keep their contents
+     */
+    private static boolean keepsContents(BufferStrategy bs) {
+        BufferCapabilities capabilities = bs.getCapabilities();
+        if (!capabilities.isPageFlipping()) return true;
+        BufferCapabilities.FlipContents contents = capabilities.getFlipContents();
+        return contents == BufferCapabilities.FlipContents.COPIED || contents == BufferCapabilities.FlipContents.PRIOR;
+    }
+
+    /**
+     * Marks the whole window to be drawn with the next frame instead of clearing it, since frames are drawn by the game
+     *
+     * @param g the graphics of the window
+     */
+    @Override
+    public void update(Graphics g) {
+        this.exposed = true;
+    }
+
+    /**
+     * Marks the whole window to be drawn with the next frame, like when it is first shown or uncovered
+     *
+     * @param g the graphics of the window
+     */
+    @Override
+    public void paint(Graphics g) {
+        this.exposed = true;
+    }
+
+    /**
+     * Scales the changed regions of an indexed image with {@link Upscaler} and draws the regions of the last few frames to the window without scaling
+     *
+     * @param bs the window's buffers
+     * @param image the image of the frame
+     * @param regions the regions that changed since the last presented frame
+     */
+    private void presentScaled(BufferStrategy bs, BufferedImage image, DirtyRegions regions) {
+        long start = System.nanoTime();
+        int scale = this.SCALE;
+        if (this.scaledImage == null) {
+            this.scaledImage = new BufferedImage(this.WIDTH * scale, this.HEIGHT * scale, BufferedImage.TYPE_INT_RGB);
+            this.scaledPixels = ((DataBufferInt)this.scaledImage.getRaster().getDataBuffer()).getData();
+        }
+        byte[] indices = Game.getIndices(image);
+        if (this.scaledStale || regions.isFull()) {
+            Upscaler.scale(indices, this.WIDTH, this.HEIGHT, this.colors, this.scaledPixels, scale);
+            this.scaledStale = false;
+        } else {
+            for (int i = 0; i < regions.getCount(); i++) {
+                Upscaler.scale(indices, this.WIDTH, this.HEIGHT, this.colors, this.scaledPixels, scale, regions.getX(i), regions.getY(i), regions.getWidth(i), regions.getHeight(i));
+            }
+        }
+        long scaled = System.nanoTime();
+        this.stats.record(Phase.CONVERT, scaled - start);
+
+        Graphics g = bs.getDrawGraphics();
+        if (this.drawRegions.isFull()) {
+            g.drawImage(this.scaledImage, 0, 0, null);
+        } else {
+            for (int i = 0; i < this.drawRegions.getCount(); i++) {
+                int x = this.drawRegions.getX(i) * scale;
+                int y = this.drawRegions.getY(i) * scale;
+                int x1 = x + this.drawRegions.getWidth(i) * scale;
+                int y1 = y + this.drawRegions.getHeight(i) * scale;
+                g.drawImage(this.scaledImage, x, y, x1, y1, x, y, x1, y1, null);
+            }
+        }
+        g.dispose();
+        long blitted = System.nanoTime();
+        this.stats.record(Phase.BLIT, blitted - scaled);
+
+        bs.show();
+        this.stats.record(Phase.SHOW, System.nanoTime() - blitted);
+        this.stats.countFrame();
+    }
+
+    /**
+     * Sets the recorder that the input of every tick is written to
+     * <p>The recorder is not closed by the game</p>
+     *
+     * @param recorder the recorder, or {@code null} to stop recording
+     */
+    public void setInputRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Sets a replay that the input of every tick is taken from instead of the keyboard and mouse
+     * <p>Once the replay runs out the handlers see no input until the replay is removed</p>
+     *
+     * @param replay the replay, or {@code null} to use the keyboard and mouse again
+     */
+    public void setInputReplay(InputReplay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Plays back a replay on the calling thread as fast as possible
+     * <p>Best used with a headless game for reproducible load and regression runs, the number of ticks that were played is {@link InputReplay#getTicks()}</p>
+     *
+     * @param replay the replay to play back
+     * @param render if every tick should also be rendered
+     * @return the time the replay took in nanoseconds
+     */
+    public long replay(InputReplay replay, boolean render) {
+        this.replay = replay;
+        long start = System.nanoTime();
+        while (this.replay == replay && replay.hasNext()) {
+            this.gameTick();
+            if (render) this.gameRender(1);
+        }
+        this.replay = null;
+        return System.nanoTime() - start;
     }
 
     /**
      * Used to find how fast the game is running
      * 
-     * @return the current number of ticks per second
+     * @return the number of ticks during the last full second
      */
     public int getTicks() {
-        return this.ticks;
+        return this.stats.getTicksPerSecond();
     }
 
     /**
      * Used to find how fast each buffer is being drawn to the screen
      * 
-     * @return the current number of frames per second
+     * @return the number of frames during the last full second
      */
     public int getFrames() {
-        return this.frames;
+        return this.stats.getFramesPerSecond();
+    }
+
+    /**
+     * Used to get the timings of every part of the game loop
+     * 
+     * @return the {@link FrameStats} of the game
+     */
+    public FrameStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * Sets if the tick and frame rates and phase timings should be drawn over every frame
+     * 
+     * @param statsOverlay if the stats overlay should be drawn
+     */
+    public void setStatsOverlay(boolean statsOverlay) {
+        this.statsOverlay = statsOverlay;
+    }
+
+    /**
+     * Sets if frames should be converted and drawn to the window on a separate render thread
+     * <p>{@link Game#render()} still runs on the game thread, but the next tick can start while the last frame is presented</p>
+     * <p>The {@code screen} swaps between three pixel arrays, so don't keep the array from {@link Screen#getPixels()} between frames</p>
+     * <p>Must be called before {@link Game#start()}</p>
+     * 
+     * @param pipelined if the game should present frames on a separate thread
+     */
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Used to find if frames are presented on a separate render thread
+     * 
+     * @return if the game is pipelined
+     */
+    public boolean isPipelined() {
+        return this.pipelined;
+    }
+
+    /**
+     * Sets if frames are scaled by {@link Upscaler} before being drawn to the window
+     * <p>This is on by default, turning it off lets {@link Graphics#drawImage} scale every frame instead</p>
+     *
+     * @param upscaled if frames should be scaled by the engine
+     */
+    public void setUpscaled(boolean upscaled) {
+        this.upscaled = upscaled;
+    }
+
+    /**
+     * Used to find if frames are scaled by {@link Upscaler} before being drawn to the window
+     *
+     * @return if frames are scaled by the engine
+     */
+    public boolean isUpscaled() {
+        return this.upscaled;
+    }
+
+    /**
+     * Sets the {@link FramePacer} that decides how the game waits between ticks
+     * <p>Use {@link gamengine.time.SpinPacer}, {@link ParkPacer}, {@link gamengine.time.SleepPacer} or your own</p>
+     * 
+     * @param pacer the new pacer
+     */
+    public void setPacer(FramePacer pacer) {
+        this.pacer = pacer;
+    }
+
+    /**
+     * Used to get the {@link FramePacer} of the game
+     * <p>Use {@link FramePacer#getAverageJitter()} to see how well it holds the {@code FPS}</p>
+     * 
+     * @return the pacer that waits between ticks
+     */
+    public FramePacer getPacer() {
+        return this.pacer;
+    }
+
+    /**
+     * Used to find how many ticks were skipped because the game fell too far behind
+     * 
+     * @return the total number of dropped ticks
+     */
+    public long getDroppedTicks() {
+        return this.droppedTicks;
+    }
+
+    /**
+     * Used to find how much game time was skipped because the game fell too far behind
+     * 
+     * @return the total dropped time in nanoseconds
+     */
+    public long getDroppedTime() {
+        return this.droppedTime;
+    }
+
+    /**
+     * Used to find if the game is running without a window
+     * 
+     * @return if the game is headless
+     */
+    public boolean isHeadless() {
+        return this.headless;
+    }
+
+    /**
+     * Used to get the RGB pixels of the last rendered frame
+     * <p>The frame is converted from color codes when this is called, so call it between frames</p>
+     * <p>The conversion isn't recorded as {@link Phase#CONVERT}, since this can be called from any thread</p>
+     * <p>In a headless game this is the only output of {@link Game#render()}</p>
+     * 
+     * @return the palette-converted pixels of the game
+     */
+    public int[] getPixels() {
+        Game.convert(Game.getIndices(this.presented), this.WIDTH, this.HEIGHT, this.colors, this.pixels, this.WIDTH);
+        return this.pixels;
+    }
+
+    /**
+     * Used to get the last presented frame as an indexed image
+     * <p>The image uses the palette from {@link Colors#getColorModel()}</p>
+     * 
+     * @return the image of the last frame
+     */
+    public BufferedImage getImage() {
+        return this.presented;
     }
 }
\ No newline at end of file
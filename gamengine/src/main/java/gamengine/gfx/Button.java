@@ -11,8 +11,7 @@ import gamengine.Game;
 public class Button {
 
     private Rect rect;
-    private String message;
-    private int messageScale;
+    private TextLayout message;
     private int messageColor;
     private MouseHandler mouse;
     private int messageX;
@@ -48,22 +47,14 @@ public class Button {
      */
     public Button(int xPos, int yPos, int width, int height, int color, String message, int messageScale, int messageColor, MouseHandler mouse) {
         this.rect = new Rect(xPos, yPos, width, height, color, false);
-        this.message = message;
-        this.messageScale = messageScale;
+        this.message = message.equals("") ? null : new TextLayout(message, messageScale);
         this.messageColor = messageColor;
         this.mouse = mouse;
 
-        int maxLength = 0;
-        for (String line: message.split("\n")) {
-            if (line.length() > maxLength) {
-                maxLength = line.length();
-            }
+        if (this.message != null) {
+            this.messageX = xPos + width / 2 - this.message.getWidth() / 2;
+            this.messageY = yPos + height / 2 - this.message.getHeight() / 2;
         }
-        
-        int messageLength = 8 * messageScale * maxLength;
-        int messageHeight = 8 * messageScale * (int)message.split("\n").length;
-        this.messageX = xPos + width / 2 - messageLength / 2;
-        this.messageY = yPos + height / 2 - messageHeight / 2;
     }
 
     /**
@@ -86,8 +77,8 @@ public class Button {
      */
     public void render(Screen screen) {
         this.rect.render(screen);
-        if (!this.message.equals("")) {
-            Font.render(this.message, screen, this.messageX, this.messageY, this.messageColor, this.messageScale, false);
+        if (this.message != null) {
+            this.message.render(screen, this.messageX, this.messageY, this.messageColor, false);
         }
     }
 }
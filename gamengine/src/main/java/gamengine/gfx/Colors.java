@@ -1,5 +1,8 @@
 package gamengine.gfx;
 
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+
 /**
  * A class for getting the color code for a sprite
  */
@@ -41,4 +44,39 @@ public class Colors {
         int b = color / 1 % 10;
         return r * 36 + g * 6 + b;
     }
+
+    /**
+     * Returns the RGB value of every color code
+     * <p>The index into the array is the color code from {@link Colors#get(int color)}</p>
+     *
+     * @return a new array of 216 RGB colors
+     */
+    public static int[] getPalette() {
+        int[] palette = new int[6 * 6 * 6];
+        int index = 0;
+        for (int r = 0; r < 6; r++) {
+            for (int g = 0; g < 6; g++) {
+                for (int b = 0; b < 6; b++) {
+                    int rr = r * 255 / 5;
+                    int gg = g * 255 / 5;
+                    int bb = b * 255 / 5;
+
+                    palette[index++] = rr << 16 | gg << 8 | bb;
+                }
+            }
+        }
+        return palette;
+    }
+
+    /**
+     * Returns a color model that draws color codes straight from an indexed image
+     * <p>Color code 255 is transparent and the unused codes from 216 to 254 are black</p>
+     *
+     * @return a new 256 color {@link IndexColorModel}
+     */
+    public static IndexColorModel getColorModel() {
+        int[] palette = new int[256];
+        System.arraycopy(Colors.getPalette(), 0, palette, 0, 6 * 6 * 6);
+        return new IndexColorModel(8, 256, palette, 0, false, 255, DataBuffer.TYPE_BYTE);
+    }
 }
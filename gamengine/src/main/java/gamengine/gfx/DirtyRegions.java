@@ -0,0 +1,229 @@
+package gamengine.gfx;
+
+/**
+ * A class that keeps a short list of rectangles of a {@link Screen} that have changed
+ * <p>Overlapping or touching rectangles are merged, and once they cover too much of the screen the whole screen counts as changed</p>
+ */
+public class DirtyRegions {
+
+    private static final int MAX_REGIONS = 16;
+
+    private int width;
+    private int height;
+    private double threshold = 0.5;
+
+    /**
+     * The regions stored as {@code x0, y0, x1, y1} where {@code x1} and {@code y1} are exclusive
+     */
+    private int[] regions = new int[MAX_REGIONS * 4];
+    private int count = 0;
+    private boolean full = false;
+
+    /**
+     * Used for instantiating a {@link DirtyRegions}
+     *
+     * @param width the width of the screen
+     * @param height the height of the screen
+     */
+    public DirtyRegions(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Marks a rectangle as changed
+     * <p>The rectangle is clipped to the screen first</p>
+     *
+     * @param x the x-coord of the rectangle
+     * @param y the y-coord of the rectangle
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    public void add(int x, int y, int width, int height) {
+        if (this.full) return;
+
+        int x0 = Math.max(x, 0);
+        int y0 = Math.max(y, 0);
+        int x1 = Math.min(x + width, this.width);
+        int y1 = Math.min(y + height, this.height);
+        if (x0 >= x1 || y0 >= y1) return;
+
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            int best = -1;
+            for (int i = 0; i < this.count; i++) {
+                int j = i * 4;
+                if (x0 <= this.regions[j + 2] && this.regions[j] <= x1 && y0 <= this.regions[j + 3] && this.regions[j + 1] <= y1) {
+                    best = i;
+                    break;
+                }
+            }
+
+            if (best < 0 && this.count == MAX_REGIONS) {
+                long leastGrowth = Long.MAX_VALUE;
+                for (int i = 0; i < this.count; i++) {
+                    int j = i * 4;
+                    long growth = DirtyRegions.area(Math.min(x0, this.regions[j]), Math.min(y0, this.regions[j + 1]), Math.max(x1, this.regions[j + 2]), Math.max(y1, this.regions[j + 3]))
+                                - DirtyRegions.area(this.regions[j], this.regions[j + 1], this.regions[j + 2], this.regions[j + 3]);
+                    if (growth < leastGrowth) {
+                        leastGrowth = growth;
+                        best = i;
+                    }
+                }
+            }
+
+            if (best >= 0) {
+                int j = best * 4;
+                x0 = Math.min(x0, this.regions[j]);
+                y0 = Math.min(y0, this.regions[j + 1]);
+                x1 = Math.max(x1, this.regions[j + 2]);
+                y1 = Math.max(y1, this.regions[j + 3]);
+                this.remove(best);
+                merged = true;
+            }
+        }
+
+        int j = this.count * 4;
+        this.regions[j] = x0;
+        this.regions[j + 1] = y0;
+        this.regions[j + 2] = x1;
+        this.regions[j + 3] = y1;
+        this.count++;
+
+        long covered = 0;
+        for (int i = 0; i < this.count; i++) {
+            int k = i * 4;
+            covered += DirtyRegions.area(this.regions[k], this.regions[k + 1], this.regions[k + 2], this.regions[k + 3]);
+        }
+        if (covered > this.threshold * this.width * this.height) this.markFull();
+    }
+
+    /**
+     * Marks every region of another {@link DirtyRegions} as changed
+     *
+     * @param other the regions to add
+     */
+    public void addAll(DirtyRegions other) {
+        if (other.full) {
+            this.markFull();
+            return;
+        }
+        for (int i = 0; i < other.count; i++) {
+            this.add(other.getX(i), other.getY(i), other.getWidth(i), other.getHeight(i));
+        }
+    }
+
+    /**
+     * Replaces the regions with a copy of the regions of another {@link DirtyRegions}
+     *
+     * @param other the regions to copy
+     */
+    public void set(DirtyRegions other) {
+        System.arraycopy(other.regions, 0, this.regions, 0, other.count * 4);
+        this.count = other.count;
+        this.full = other.full;
+    }
+
+    /**
+     * Marks the whole screen as changed
+     */
+    public void markFull() {
+        this.full = true;
+        this.count = 0;
+    }
+
+    /**
+     * Marks nothing as changed
+     */
+    public void clear() {
+        this.full = false;
+        this.count = 0;
+    }
+
+    /**
+     * Sets how much of the screen can be covered before the whole screen counts as changed
+     *
+     * @param threshold the fraction of the screen from 0 to 1
+     */
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Used to find if the whole screen has changed
+     * 
+     * @return if the whole screen is dirty
+     */
+    public boolean isFull() {
+        return this.full;
+    }
+
+    /**
+     * Used to find if nothing has changed
+     * 
+     * @return if there are no dirty regions
+     */
+    public boolean isEmpty() {
+        return !this.full && this.count == 0;
+    }
+
+    /**
+     * Used to get the number of separate regions
+     * <p>This is 0 when {@link DirtyRegions#isFull()} is true</p>
+     * 
+     * @return the number of regions
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Used to get the x-coord of a region
+     *
+     * @param index the index of the region
+     * @return the left edge of the region
+     */
+    public int getX(int index) {
+        return this.regions[index * 4];
+    }
+
+    /**
+     * Used to get the y-coord of a region
+     *
+     * @param index the index of the region
+     * @return the top edge of the region
+     */
+    public int getY(int index) {
+        return this.regions[index * 4 + 1];
+    }
+
+    /**
+     * Used to get the width of a region
+     *
+     * @param index the index of the region
+     * @return the width of the region
+     */
+    public int getWidth(int index) {
+        return this.regions[index * 4 + 2] - this.regions[index * 4];
+    }
+
+    /**
+     * Used to get the height of a region
+     *
+     * @param index the index of the region
+     * @return the height of the region
+     */
+    public int getHeight(int index) {
+        return this.regions[index * 4 + 3] - this.regions[index * 4 + 1];
+    }
+
+    private void remove(int index) {
+        this.count--;
+        System.arraycopy(this.regions, this.count * 4, this.regions, index * 4, 4);
+    }
+
+    private static long area(int x0, int y0, int x1, int y1) {
+        return (long)(x1 - x0) * (y1 - y0);
+    }
+}
@@ -8,6 +8,18 @@ public class Font {
     private static final String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ      " +
                                         "0123456789.,\"'!-©               ";
 
+    /**
+     * The sprite of every character below 256, or -1 for characters without one
+     */
+    private static final int[] GLYPHS = new int[256];
+
+    static {
+        for (int c = 0; c < Font.GLYPHS.length; c++) {
+            int charIndex = Font.chars.indexOf(Character.toUpperCase((char)c));
+            Font.GLYPHS[c] = charIndex >= 0 ? charIndex + 30 * 32 : -1;
+        }
+    }
+
     /**
      * Used to instantiate a {@link Font} class
      * <p>Note that this is unnecessary as all the methods in this class are static</p>
@@ -42,20 +54,134 @@ public class Font {
      * @param offset if the text should be rendered with an offset
      */
     public static void render(String message, Screen screen, int x, int y, int color, int scale, boolean offset) {
+        Font.render((CharSequence)message, screen, x, y, color, scale, offset);
+    }
+
+    /**
+     * Renders text to the screen without making a {@link String}, for example from a reused {@link StringBuilder}
+     *
+     * @param message message to be rendered
+     * @param screen screen on which to render message
+     * @param x x-coord of message
+     * @param y y-coord of message
+     * @param color color to render message (Use {@link Colors#get(int, int, int, int)})
+     * @param scale value to scale the message by
+     * @param offset if the text should be rendered with an offset
+     */
+    public static void render(CharSequence message, Screen screen, int x, int y, int color, int scale, boolean offset) {
         int currX = x;
         int currY = y;
-        message = message.toUpperCase();
         for (int i = 0; i < message.length(); i++) {
-            if (message.charAt(i) == '\n') {
+            char c = message.charAt(i);
+            if (c == '\n') {
                 currX = x;
                 currY += 8 * scale;
                 continue;
             }
-            int charIndex = Font.chars.indexOf(message.charAt(i));
-            if (charIndex >= 0) {
-                screen.render(currX, currY, charIndex + 30 * 32, color, false, false, scale, offset);
+            int glyph = Font.getGlyph(c);
+            if (glyph >= 0) {
+                screen.render(currX, currY, glyph, color, false, false, scale, offset);
                 currX += 8 * scale;
             }
         }
     }
+
+    /**
+     * Renders an array of characters to the screen
+     *
+     * @param message message to be rendered
+     * @param screen screen on which to render message
+     * @param x x-coord of message
+     * @param y y-coord of message
+     * @param color color to render message (Use {@link Colors#get(int, int, int, int)})
+     * @param scale value to scale the message by
+     * @param offset if the text should be rendered with an offset
+     */
+    public static void render(char[] message, Screen screen, int x, int y, int color, int scale, boolean offset) {
+        Font.render(message, 0, message.length, screen, x, y, color, scale, offset);
+    }
+
+    /**
+     * Renders part of an array of characters to the screen
+     *
+     * @param message the characters holding the message
+     * @param start the index of the first character to render
+     * @param length the number of characters to render
+     * @param screen screen on which to render message
+     * @param x x-coord of message
+     * @param y y-coord of message
+     * @param color color to render message (Use {@link Colors#get(int, int, int, int)})
+     * @param scale value to scale the message by
+     * @param offset if the text should be rendered with an offset
+     */
+    public static void render(char[] message, int start, int length, Screen screen, int x, int y, int color, int scale, boolean offset) {
+        int currX = x;
+        int currY = y;
+        for (int i = start; i < start + length; i++) {
+            char c = message[i];
+            if (c == '\n') {
+                currX = x;
+                currY += 8 * scale;
+                continue;
+            }
+            int glyph = Font.getGlyph(c);
+            if (glyph >= 0) {
+                screen.render(currX, currY, glyph, color, false, false, scale, offset);
+                currX += 8 * scale;
+            }
+        }
+    }
+
+    /**
+     * Renders a number to the screen without making a {@link String}, for things like scores and counters
+     *
+     * @param value number to be rendered
+     * @param screen screen on which to render the number
+     * @param x x-coord of the number
+     * @param y y-coord of the number
+     * @param color color to render the number (Use {@link Colors#get(int, int, int, int)})
+     * @param scale value to scale the number by
+     * @param offset if the number should be rendered with an offset
+     */
+    public static void render(long value, Screen screen, int x, int y, int color, int scale, boolean offset) {
+        int currX = x + Font.getWidth(value, scale);
+        long rest = value;
+        do {
+            currX -= 8 * scale;
+            int digit = (int)Math.abs(rest % 10);
+            screen.render(currX, y, Font.GLYPHS['0' + digit], color, false, false, scale, offset);
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) {
+            screen.render(x, y, Font.GLYPHS['-'], color, false, false, scale, offset);
+        }
+    }
+
+    /**
+     * Used to find how wide a number is when it is rendered
+     *
+     * @param value the number
+     * @param scale value the number is scaled by
+     * @return the width of the number in pixels
+     */
+    public static int getWidth(long value, int scale) {
+        int length = value < 0 ? 2 : 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            length++;
+        }
+        return 8 * scale * length;
+    }
+
+    /**
+     * Used to find the sprite of a character
+     * <p>Lowercase letters use the sprite of their uppercase letter</p>
+     *
+     * @param c the character
+     * @return the index of the character's sprite, or -1 if the font has no sprite for it
+     */
+    public static int getGlyph(char c) {
+        if (c < 256) return Font.GLYPHS[c];
+        char upper = Character.toUpperCase(c);
+        return upper < 256 ? Font.GLYPHS[upper] : -1;
+    }
 }
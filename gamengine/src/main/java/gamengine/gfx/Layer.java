@@ -0,0 +1,104 @@
+package gamengine.gfx;
+
+/**
+ * A class for a layer of a {@link LayerStack} that is drawn on its own {@link Screen}
+ * <p>A static layer is only drawn again after {@link Layer#invalidate()} is called, so backgrounds and HUDs that rarely change cost almost nothing</p>
+ */
+public abstract class Layer {
+
+    /**
+     * The X-offset at which the layer is composited
+     * <p>The layer's pixel at {@code x + xOffset} is drawn at {@code x} on the screen, so moving it doesn't redraw a static layer</p>
+     */
+    public int xOffset = 0;
+    /**
+     * The Y-offset at which the layer is composited
+     * <p>The layer's pixel at {@code y + yOffset} is drawn at {@code y} on the screen, so moving it doesn't redraw a static layer</p>
+     */
+    public int yOffset = 0;
+
+    private Screen screen;
+    private boolean isStatic;
+    private boolean valid = false;
+
+    /**
+     * Used for instantiating a {@link Layer} with the size and {@link SpriteSheet} of a screen
+     *
+     * @param screen the screen the layer will be composited onto
+     * @param isStatic if the layer should only be drawn again after {@link Layer#invalidate()}
+     */
+    public Layer(Screen screen, boolean isStatic) {
+        this(screen, screen.width, screen.height, isStatic);
+    }
+
+    /**
+     * Used for instantiating a {@link Layer}
+     * <p>A layer can be larger than the screen, for example to scroll a background with {@code xOffset} without drawing it again</p>
+     *
+     * @param screen the screen the layer will be composited onto
+     * @param width the width of the layer
+     * @param height the height of the layer
+     * @param isStatic if the layer should only be drawn again after {@link Layer#invalidate()}
+     */
+    public Layer(Screen screen, int width, int height, boolean isStatic) {
+        this.screen = new Screen(width, height, screen.sheet);
+        this.isStatic = isStatic;
+    }
+
+    /**
+     * This function is called whenever the layer is to be drawn
+     * <p>The layer's screen is cleared to transparent before this is called</p>
+     *
+     * @param screen the layer's own screen
+     */
+    public abstract void render(Screen screen);
+
+    /**
+     * Marks a static layer to be drawn again the next time the {@link LayerStack} is rendered
+     */
+    public void invalidate() {
+        this.valid = false;
+    }
+
+    /**
+     * Used to find if the layer is only drawn again after {@link Layer#invalidate()}
+     * 
+     * @return if the layer is static
+     */
+    public boolean isStatic() {
+        return this.isStatic;
+    }
+
+    /**
+     * Sets if the layer is only drawn again after {@link Layer#invalidate()}
+     * 
+     * @param isStatic if the layer should be static
+     */
+    public void setStatic(boolean isStatic) {
+        this.isStatic = isStatic;
+    }
+
+    /**
+     * Used to get the screen the layer draws to
+     * 
+     * @return the layer's screen
+     */
+    public Screen getScreen() {
+        return this.screen;
+    }
+
+    /**
+     * Draws the layer if it isn't static or has been invalidated
+     *
+     * @return if the layer was drawn
+     */
+    boolean update() {
+        if (this.isStatic && this.valid) return false;
+        this.screen.clear();
+        this.render(this.screen);
+        this.screen.flush();
+        this.screen.getDirtyRegions().clear();
+        this.valid = true;
+        return true;
+    }
+}
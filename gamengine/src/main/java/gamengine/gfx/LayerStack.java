@@ -0,0 +1,131 @@
+package gamengine.gfx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class that composites several {@link Layer}s onto a {@link Screen}
+ * <p>Every pixel is taken from the top-most layer that isn't transparent (color code 255) there, in a single pass over the screen</p>
+ * <p>Only the regions covered by layers that were drawn again or moved, and the regions of the screen that were drawn over since the last composite, are composited and marked as dirty</p>
+ */
+public class LayerStack {
+
+    private List<Layer> layers = new ArrayList<Layer>();
+    private Layer[] order = new Layer[0];
+    private Screen[] screens = new Screen[0];
+    private int[] xOffsets = new int[0];
+    private int[] yOffsets = new int[0];
+    private Screen target;
+
+    /**
+     * Used for instantiating a {@link LayerStack}
+     */
+    public LayerStack() {
+
+    }
+
+    /**
+     * Adds a layer on top of all the other layers
+     *
+     * @param layer the layer to add
+     */
+    public void add(Layer layer) {
+        this.layers.add(layer);
+        this.rebuild();
+    }
+
+    /**
+     * Removes a layer
+     *
+     * @param layer the layer to remove
+     */
+    public void remove(Layer layer) {
+        this.layers.remove(layer);
+        this.rebuild();
+    }
+
+    /**
+     * Draws every layer that needs it and composites the layers onto the screen where anything changed
+     * <p>Pixels where every layer is transparent are left as they are</p>
+     * <p>The layers are written to the screen right away, so when the screen is deferred call this before drawing anything else</p>
+     *
+     * @param screen screen on which to composite the layers
+     */
+    public void render(Screen screen) {
+        Layer[] layers = this.order;
+        int count = layers.length;
+        if (count == 0) return;
+
+        DirtyRegions regions = screen.getOverdrawn();
+        if (screen != this.target) {
+            regions.markFull();
+            this.target = screen;
+        }
+
+        for (int l = 0; l < count; l++) {
+            Layer layer = layers[l];
+            boolean drawn = layer.update();
+            if (drawn || layer.xOffset != this.xOffsets[l] || layer.yOffset != this.yOffsets[l]) {
+                Screen layerScreen = this.screens[l];
+                regions.add(-this.xOffsets[l], -this.yOffsets[l], layerScreen.width, layerScreen.height);
+                regions.add(-layer.xOffset, -layer.yOffset, layerScreen.width, layerScreen.height);
+                this.xOffsets[l] = layer.xOffset;
+                this.yOffsets[l] = layer.yOffset;
+            }
+        }
+
+        if (regions.isFull()) {
+            this.composite(screen, 0, 0, screen.width, screen.height);
+        } else {
+            for (int i = 0; i < regions.getCount(); i++) {
+                this.composite(screen, regions.getX(i), regions.getY(i), regions.getX(i) + regions.getWidth(i), regions.getY(i) + regions.getHeight(i));
+            }
+        }
+        screen.getDirtyRegions().addAll(regions);
+        regions.clear();
+    }
+
+    /**
+     * Composites the layers onto a rectangle of the screen, from {@code x0, y0} up to but not including {@code x1, y1}
+     */
+    private void composite(Screen screen, int x0, int y0, int x1, int y1) {
+        Screen[] screens = this.screens;
+        int count = screens.length;
+        byte[] target = screen.pixels;
+        for (int y = y0; y < y1; y++) {
+            int row = y * screen.width;
+            for (int x = x0; x < x1; x++) {
+                for (int l = 0; l < count; l++) {
+                    Screen layer = screens[l];
+                    int lx = x + this.xOffsets[l];
+                    int ly = y + this.yOffsets[l];
+                    if (lx < 0 || ly < 0 || lx >= layer.width || ly >= layer.height) continue;
+                    byte col = layer.pixels[lx + ly * layer.width];
+                    if (col != (byte)255) {
+                        target[row + x] = col;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the arrays of the layers from the top-most layer down, and composites the whole screen next time
+     */
+    private void rebuild() {
+        int count = this.layers.size();
+        this.order = new Layer[count];
+        this.screens = new Screen[count];
+        this.xOffsets = new int[count];
+        this.yOffsets = new int[count];
+        for (int l = 0; l < count; l++) {
+            Layer layer = this.layers.get(count - 1 - l);
+            this.order[l] = layer;
+            this.screens[l] = layer.getScreen();
+            this.xOffsets[l] = layer.xOffset;
+            this.yOffsets[l] = layer.yOffset;
+        }
+        this.target = null;
+    }
+}
@@ -1,14 +1,19 @@
 package gamengine.gfx;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * A class for rendering sprites to a {@link Screen}
  */
 public class Screen {
 
     /**
-     * An integer array of all the pixels colors of the screen
+     * A byte array of all the pixel color codes of the screen
+     * <p>Read a pixel with {@code pixels[i] & 0xff} to get a color code from 0 to 215</p>
      */
-    protected int[] pixels;
+    protected byte[] pixels;
 
     /**
      * The X-offset of all pixels on the screen
@@ -36,6 +41,59 @@ public class Screen {
      */
     protected SpriteSheet sheet;
 
+    /**
+     * The regions of the screen that have been drawn to since they were last cleared
+     */
+    protected DirtyRegions dirty;
+
+    /**
+     * The regions that have been drawn to since a {@link LayerStack} last composited onto the screen, {@code null} until one does
+     */
+    private DirtyRegions overdrawn;
+
+    /**
+     * The {@link SpriteCache} that keeps recently drawn sprites ready to copy
+     */
+    protected SpriteCache spriteCache;
+
+    private static final int COMMAND_SIZE = 8;
+    private static final int SPRITE = 0;
+    private static final int BOX = 1;
+    private static final int IMAGE = 2;
+
+    /**
+     * A boolean that represents if drawing is queued until {@link Screen#flush()}
+     */
+    private boolean deferred = false;
+    /**
+     * The layer of queued draws, lower layers are drawn first
+     */
+    private int layer = 0;
+    /**
+     * The queued draws, {@code COMMAND_SIZE} integers each: type, x, y, sprite, color, flags, width, height
+     */
+    private int[] commands = new int[COMMAND_SIZE * 256];
+    /**
+     * The sort key of every queued draw: layer, then sprite, then the index of the draw
+     */
+    private long[] order = new long[256];
+    private int commandCount = 0;
+    /**
+     * The cached sprite of every queued draw in sorted order, looked up before the draws are split between threads
+     */
+    private SpriteCache.Entry[] entries = new SpriteCache.Entry[256];
+    /**
+     * The image of every queued image draw, by the index of the draw
+     */
+    private byte[][] images = new byte[256][];
+
+    /**
+     * The pool that draws horizontal bands of the screen in parallel, or {@code null} to draw on the calling thread
+     */
+    private ForkJoinPool pool;
+    private int bands = 1;
+    private static final int MIN_PARALLEL_COMMANDS = 64;
+
     /**
      * Used for instantiating a {@link Screen}
      *
@@ -44,10 +102,25 @@ public class Screen {
      * @param sheet the {@link SpriteSheet} from which to draw
      */
     public Screen(int width, int height, SpriteSheet sheet) {
+        this(width, height, sheet, new byte[width * height]);
+    }
+
+    /**
+     * Used for instantiating a {@link Screen} that draws into an existing array
+     * <p>The array is usually the data of an indexed image, so it can be shown without converting it</p>
+     *
+     * @param width the width of the screen
+     * @param height the height of the screen
+     * @param sheet the {@link SpriteSheet} from which to draw
+     * @param pixels the color codes of the screen, with a length of at least {@code width * height}
+     */
+    public Screen(int width, int height, SpriteSheet sheet, byte[] pixels) {
         this.width = width;
         this.height = height;
         this.sheet = sheet;
-        this.pixels = new int[this.width * this.height];
+        this.dirty = new DirtyRegions(width, height);
+        this.spriteCache = new SpriteCache(sheet, 1 << 20);
+        this.setPixels(pixels);
     }
 
     /**
@@ -57,9 +130,21 @@ public class Screen {
      */
     public void fill(int color) {
         if (color == 255) return;
-        for (int i = 0; i < this.pixels.length; i++) {
-            this.pixels[i] = color;
-        }
+        Arrays.fill(this.images, 0, this.commandCount, null);
+        this.commandCount = 0;
+        Arrays.fill(this.pixels, 0, this.width * this.height, (byte)color);
+        this.markFull();
+    }
+
+    /**
+     * Makes every pixel of the screen transparent (color code 255)
+     * <p>Used for screens that are drawn on top of other screens, like a {@link Layer}</p>
+     */
+    public void clear() {
+        Arrays.fill(this.images, 0, this.commandCount, null);
+        this.commandCount = 0;
+        Arrays.fill(this.pixels, 0, this.width * this.height, (byte)255);
+        this.markFull();
     }
 
     /**
@@ -79,12 +164,26 @@ public class Screen {
             yPos -= this.yOffset;
         }
 
-        for (int x = xPos; x < xPos + width; x++) {
-            if (x < 0 || x >= this.width) continue;
-            for (int y = yPos; y < yPos + height; y++) {
-                if (y < 0 || y >= this.height) continue;
-                this.pixels[x + y * this.width] = color;
-            }
+        if (this.deferred) {
+            this.queue(BOX, xPos, yPos, 0, color, 0, width, height);
+            return;
+        }
+        this.markDirty(xPos, yPos, width, height);
+        this.drawBox(xPos, yPos, width, height, color, 0, this.height);
+    }
+
+    /**
+     * Fills a rectangle, only touching the rows from {@code minY} up to {@code maxY}
+     */
+    private void drawBox(int xPos, int yPos, int width, int height, int color, int minY, int maxY) {
+        int x0 = Math.max(xPos, 0);
+        int x1 = Math.min(xPos + width, this.width);
+        if (x0 >= x1) return;
+
+        int y0 = Math.max(yPos, minY);
+        int y1 = Math.min(yPos + height, maxY);
+        for (int y = y0; y < y1; y++) {
+            Arrays.fill(this.pixels, x0 + y * this.width, x1 + y * this.width, (byte)color);
         }
     }
 
@@ -144,26 +243,42 @@ public class Screen {
             xPos -= this.xOffset;
             yPos -= this.yOffset;
         }
-        
-        int xSprite = sprite % 32;
-        int ySprite = sprite / 32;
-        int spriteOffset = (xSprite << 3) + (ySprite << 3) * this.sheet.width;
 
+        if (this.deferred) {
+            this.queue(SPRITE, xPos, yPos, sprite, color, (mirrorX ? 1 : 0) | (mirrorY ? 2 : 0) | scale << 2, 8 * scale, 8 * scale);
+            return;
+        }
+        this.markDirty(xPos, yPos, 8 * scale, 8 * scale);
+        SpriteCache.Entry entry = this.spriteCache.get(sprite, color, mirrorX, mirrorY, scale);
+        this.drawSprite(xPos, yPos, sprite, color, mirrorX, mirrorY, scale, entry, 0, this.height);
+    }
+
+    /**
+     * Draws a sprite from its cached {@code entry}, or pixel by pixel when it isn't cached,
+     * only touching the rows from {@code minY} up to {@code maxY}
+     */
+    private void drawSprite(int xPos, int yPos, int sprite, int color, boolean mirrorX, boolean mirrorY, int scale, SpriteCache.Entry entry, int minY, int maxY) {
+        if (entry != null) {
+            this.blit(entry, xPos, yPos, minY, maxY);
+            return;
+        }
+        
         for (int y = 0; y < 8; y++) {
             int ySheet = y;
             if (mirrorY) ySheet = 7 - y;
+            int bits = this.sheet.getRow(sprite, ySheet);
             int yPixel = yPos + (y * scale);
             for (int x = 0; x < 8; x++) {
                 int xSheet = x;
                 if (mirrorX) xSheet = 7 - x;
                 int xPixel = xPos + (x * scale);
-                int col = (color >> (this.sheet.pixels[xSheet + ySheet * this.sheet.width + spriteOffset] * 8)) & 255;
+                int col = (color >> (((bits >>> (xSheet << 1)) & 3) << 3)) & 255;
                 if (col < 255) {
                     for (int yScale = 0; yScale < scale; yScale++) {
-                        if (yPixel + yScale < 0 || yPixel + yScale >= this.height) continue;
+                        if (yPixel + yScale < minY || yPixel + yScale >= maxY) continue;
                         for (int xScale = 0; xScale < scale; xScale++) {
                             if (xPixel + xScale < 0 || xPixel + xScale >= this.width) continue;
-                            this.pixels[(xPixel + xScale) + (yPixel + yScale) * this.width] = col;
+                            this.pixels[(xPixel + xScale) + (yPixel + yScale) * this.width] = (byte)col;
                         }
                     }
                 }
@@ -171,6 +286,285 @@ public class Screen {
         }
     }
 
+    /**
+     * Renders an image of color codes, skipping pixels with color code 255
+     * <p>The image is not copied, so it must not change until it is drawn when the screen is deferred</p>
+     *
+     * @param xPos x-coord to render the image
+     * @param yPos y-coord to render the image
+     * @param image the color codes of the image, {@code imageWidth} pixels per row
+     * @param imageWidth the width of the image
+     * @param imageHeight the height of the image
+     * @param offset if the image should be rendered with an offset
+     */
+    public void render(int xPos, int yPos, byte[] image, int imageWidth, int imageHeight, boolean offset) {
+        if (offset) {
+            xPos -= this.xOffset;
+            yPos -= this.yOffset;
+        }
+
+        if (this.deferred) {
+            int index = this.queue(IMAGE, xPos, yPos, 0, 0, 0, imageWidth, imageHeight);
+            if (index >= 0) this.images[index] = image;
+            return;
+        }
+        this.markDirty(xPos, yPos, imageWidth, imageHeight);
+        this.drawImage(xPos, yPos, image, imageWidth, imageHeight, 0, this.height);
+    }
+
+    /**
+     * Copies an image, only touching the rows from {@code minY} up to {@code maxY}
+     */
+    private void drawImage(int xPos, int yPos, byte[] image, int imageWidth, int imageHeight, int minY, int maxY) {
+        int x0 = Math.max(0, -xPos);
+        int x1 = Math.min(imageWidth, this.width - xPos);
+        int y0 = Math.max(0, minY - yPos);
+        int y1 = Math.min(imageHeight, maxY - yPos);
+        for (int y = y0; y < y1; y++) {
+            int from = y * imageWidth;
+            int to = (yPos + y) * this.width + xPos;
+            for (int x = x0; x < x1; x++) {
+                byte col = image[from + x];
+                if (col != (byte)255) this.pixels[to + x] = col;
+            }
+        }
+    }
+
+    /**
+     * Adds a draw to the queue unless it is completely off the screen
+     *
+     * @return the index of the draw, or -1 if it was dropped
+     */
+    private int queue(int type, int x, int y, int sprite, int color, int flags, int width, int height) {
+        if (width <= 0 || height <= 0 || x >= this.width || y >= this.height || x + width <= 0 || y + height <= 0) return -1;
+
+        if (this.commandCount == this.order.length) {
+            this.order = Arrays.copyOf(this.order, this.order.length * 2);
+            this.commands = Arrays.copyOf(this.commands, this.commands.length * 2);
+            this.entries = new SpriteCache.Entry[this.order.length];
+            this.images = Arrays.copyOf(this.images, this.order.length);
+        }
+
+        int c = this.commandCount * COMMAND_SIZE;
+        this.commands[c] = type;
+        this.commands[c + 1] = x;
+        this.commands[c + 2] = y;
+        this.commands[c + 3] = sprite;
+        this.commands[c + 4] = color;
+        this.commands[c + 5] = flags;
+        this.commands[c + 6] = width;
+        this.commands[c + 7] = height;
+
+        long spriteKey = type == SPRITE ? Math.min(sprite + 1, 0xffff) : 0;
+        this.order[this.commandCount] = (long)(this.layer + 0x8000) << 47 | spriteKey << 31 | this.commandCount;
+        return this.commandCount++;
+    }
+
+    /**
+     * Draws every queued draw, sorted by layer and then by sprite, and empties the queue
+     * <p>{@link gamengine.Game} calls this after {@link gamengine.Game#render()}</p>
+     */
+    public void flush() {
+        if (this.commandCount == 0) return;
+
+        Arrays.sort(this.order, 0, this.commandCount);
+        for (int i = 0; i < this.commandCount; i++) {
+            int c = (int)(this.order[i] & 0x7fffffff) * COMMAND_SIZE;
+            int flags = this.commands[c + 5];
+            this.markDirty(this.commands[c + 1], this.commands[c + 2], this.commands[c + 6], this.commands[c + 7]);
+            if (this.commands[c] == SPRITE) {
+                this.entries[i] = this.spriteCache.get(this.commands[c + 3], this.commands[c + 4], (flags & 1) != 0, (flags & 2) != 0, flags >>> 2);
+            }
+        }
+
+        if (this.pool != null && this.commandCount >= MIN_PARALLEL_COMMANDS) {
+            this.pool.invoke(new BandTask(0, this.bands));
+        } else {
+            this.execute(0, this.height);
+        }
+
+        Arrays.fill(this.entries, 0, this.commandCount, null);
+        Arrays.fill(this.images, 0, this.commandCount, null);
+        this.commandCount = 0;
+    }
+
+    /**
+     * Draws every queued draw in sorted order, only touching the rows from {@code minY} up to {@code maxY}
+     */
+    private void execute(int minY, int maxY) {
+        for (int i = 0; i < this.commandCount; i++) {
+            int c = (int)(this.order[i] & 0x7fffffff) * COMMAND_SIZE;
+            int y = this.commands[c + 2];
+            if (y >= maxY || y + this.commands[c + 7] <= minY) continue;
+
+            int flags = this.commands[c + 5];
+            if (this.commands[c] == SPRITE) {
+                this.drawSprite(this.commands[c + 1], y, this.commands[c + 3], this.commands[c + 4], (flags & 1) != 0, (flags & 2) != 0, flags >>> 2, this.entries[i], minY, maxY);
+            } else if (this.commands[c] == IMAGE) {
+                this.drawImage(this.commands[c + 1], y, this.images[c / COMMAND_SIZE], this.commands[c + 6], this.commands[c + 7], minY, maxY);
+            } else {
+                this.drawBox(this.commands[c + 1], y, this.commands[c + 6], this.commands[c + 7], this.commands[c + 4], minY, maxY);
+            }
+        }
+    }
+
+    /**
+     * A task that splits the screen into horizontal bands until each task draws a single band
+     */
+    private class BandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private int first;
+        private int last;
+
+        private BandTask(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        protected void compute() {
+            if (this.last - this.first == 1) {
+                execute(this.first * height / bands, (this.first + 1) * height / bands);
+                return;
+            }
+            int middle = (this.first + this.last) >>> 1;
+            RecursiveAction.invokeAll(new BandTask(this.first, middle), new BandTask(middle, this.last));
+        }
+    }
+
+    /**
+     * Sets how many threads draw the queued draws in {@link Screen#flush()}
+     * <p>The screen is split into horizontal bands that are drawn at the same time, and the result is the same as drawing on one thread</p>
+     * <p>Only queued draws are split, so this does nothing unless the screen is deferred</p>
+     * 
+     * @param threads the number of threads, or 1 to draw on the calling thread
+     */
+    public void setThreads(int threads) {
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+        this.bands = Math.max(1, Math.min(threads * 4, this.height));
+        if (threads > 1) this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Used to find how many threads draw the queued draws
+     * 
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return this.pool == null ? 1 : this.pool.getParallelism();
+    }
+
+    /**
+     * Sets if drawing should be queued and done all at once in {@link Screen#flush()}
+     * <p>Queued draws that are completely off the screen are dropped, and the rest are drawn by layer and then by sprite</p>
+     * <p>Within a layer, rectangles and images are drawn before sprites and the order of calls is only kept for the same sprite, so put things that overlap on different layers</p>
+     * <p>{@link Screen#fill(int)} is never queued and throws away everything queued before it</p>
+     * 
+     * @param deferred if drawing should be queued
+     */
+    public void setDeferred(boolean deferred) {
+        if (!deferred) this.flush();
+        this.deferred = deferred;
+    }
+
+    /**
+     * Used to find if drawing is queued until {@link Screen#flush()}
+     * 
+     * @return if the screen is deferred
+     */
+    public boolean isDeferred() {
+        return this.deferred;
+    }
+
+    /**
+     * Sets the layer of everything that is drawn after this while the screen is deferred
+     *
+     * @param layer the layer from -32768 to 32767, lower layers are drawn first
+     */
+    public void setLayer(int layer) {
+        this.layer = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, layer));
+    }
+
+    /**
+     * Used to get the layer of queued draws
+     * 
+     * @return the current layer
+     */
+    public int getLayer() {
+        return this.layer;
+    }
+
+    /**
+     * Copies a cached sprite to the screen one span of opaque pixels at a time
+     *
+     * @param entry the cached sprite
+     * @param xPos x-coord to render the sprite
+     * @param yPos y-coord to render the sprite
+     * @param minY the first row of the screen that may be drawn to
+     * @param maxY the row of the screen after the last one that may be drawn to
+     */
+    private void blit(SpriteCache.Entry entry, int xPos, int yPos, int minY, int maxY) {
+        int size = entry.size;
+        int yStart = Math.max(0, minY - yPos);
+        int yEnd = Math.min(size, maxY - yPos);
+        for (int y = yStart; y < yEnd; y++) {
+            int screenRow = (yPos + y) * this.width;
+            for (int i = entry.rows[y]; i < entry.rows[y + 1]; i += 2) {
+                int x0 = Math.max(entry.spans[i], -xPos);
+                int x1 = Math.min(entry.spans[i + 1], this.width - xPos);
+                if (x0 < x1) System.arraycopy(entry.pixels, y * size + x0, this.pixels, screenRow + xPos + x0, x1 - x0);
+            }
+        }
+    }
+
+    /**
+     * Used to get the {@link SpriteCache} of the screen
+     * <p>Use {@link SpriteCache#setBudget(long)} to change how much memory it uses, or 0 to turn it off</p>
+     * 
+     * @return the sprite cache
+     */
+    public SpriteCache getSpriteCache() {
+        return this.spriteCache;
+    }
+
+    /**
+     * Used to get the regions of the screen that were drawn to
+     * <p>{@link gamengine.Game} clears them after every frame it presents</p>
+     * 
+     * @return the dirty regions of the screen
+     */
+    public DirtyRegions getDirtyRegions() {
+        return this.dirty;
+    }
+
+    /**
+     * Used to get the regions that have been drawn to since a {@link LayerStack} last composited onto the screen
+     * <p>They start out covering the whole screen, and are only kept from the first time this is called</p>
+     *
+     * @return the regions drawn over the layers
+     */
+    DirtyRegions getOverdrawn() {
+        if (this.overdrawn == null) {
+            this.overdrawn = new DirtyRegions(this.width, this.height);
+            this.overdrawn.markFull();
+        }
+        return this.overdrawn;
+    }
+
+    private void markDirty(int x, int y, int width, int height) {
+        this.dirty.add(x, y, width, height);
+        if (this.overdrawn != null) this.overdrawn.add(x, y, width, height);
+    }
+
+    private void markFull() {
+        this.dirty.markFull();
+        if (this.overdrawn != null) this.overdrawn.markFull();
+    }
+
     /**
      * Used to get the given screen height
      * 
@@ -190,11 +584,25 @@ public class Screen {
     }
 
     /**
-     * Used to get an integer array of all the screen's pixels
+     * Used to get a byte array of all the screen's color codes
      * 
      * @return the pixels on the screen
      */
-    public int[] getPixels() {
+    public byte[] getPixels() {
         return this.pixels;
     }
+
+    /**
+     * Sets the byte array that the screen draws into
+     * <p>Used by {@link gamengine.Game} to swap buffers when rendering on a separate thread</p>
+     * 
+     * @param pixels the new pixels of the screen, with a length of at least {@code width * height}
+     */
+    public void setPixels(byte[] pixels) {
+        if (pixels.length < this.width * this.height) {
+            throw new IllegalArgumentException("Expected at least " + this.width * this.height + " pixels but got " + pixels.length);
+        }
+        this.pixels = pixels;
+        if (this.dirty != null) this.dirty.markFull();
+    }
 }
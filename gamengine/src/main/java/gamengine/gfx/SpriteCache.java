@@ -0,0 +1,290 @@
+package gamengine.gfx;
+
+import java.util.Arrays;
+
+/**
+ * A class that keeps sprites that are already colored, mirrored and scaled so they can be copied to a {@link Screen} row by row
+ * <p>Each row is stored as spans of opaque pixels, so transparent pixels are skipped without being checked</p>
+ * <p>When the cached sprites use more than the byte budget, the least recently drawn sprites are removed</p>
+ */
+public class SpriteCache {
+
+    /**
+     * A colored, mirrored and scaled sprite
+     */
+    static final class Entry {
+
+        private long key;
+        /**
+         * The width and height of the sprite in pixels
+         */
+        int size;
+        /**
+         * The color codes of the sprite, {@code size} pixels per row
+         */
+        byte[] pixels;
+        /**
+         * Pairs of start (inclusive) and end (exclusive) x-coords of opaque pixels
+         */
+        int[] spans;
+        /**
+         * The index into {@code spans} where each row starts, with one extra index at the end
+         */
+        int[] rows;
+        private long bytes;
+
+        private Entry nextInBucket;
+        private Entry newer;
+        private Entry older;
+    }
+
+    private SpriteSheet sheet;
+    private long budget;
+    private long used = 0;
+    private int count = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    private Entry[] table = new Entry[256];
+    private Entry newest;
+    private Entry oldest;
+
+    /**
+     * Used for instantiating a {@link SpriteCache}
+     *
+     * @param sheet the {@link SpriteSheet} from which the sprites are drawn
+     * @param budget the most bytes the cached sprites may use
+     */
+    public SpriteCache(SpriteSheet sheet, long budget) {
+        this.sheet = sheet;
+        this.budget = budget;
+    }
+
+    /**
+     * Used to get a sprite from the cache, building it if it isn't cached yet
+     *
+     * @param sprite location of a sprite from a {@link SpriteSheet}
+     * @param color color to render sprite (Use {@link Colors#get(int color1, int color2, int color3, int color4)})
+     * @param mirrorX if the sprite should be mirrored horizontially
+     * @param mirrorY if the sprite should be mirrored vertically
+     * @param scale scale at which to render the sprite
+     * @return the cached sprite, or {@code null} if it can't be cached
+     */
+    Entry get(int sprite, int color, boolean mirrorX, boolean mirrorY, int scale) {
+        if (sprite < 0 || sprite > 0xffff || scale < 1 || scale > 0x3fff) return null;
+        long bytes = SpriteCache.estimateBytes(scale);
+        if (bytes > this.budget) return null;
+
+        long key = (color & 0xffffffffL) | (long)sprite << 32 | (mirrorX ? 1L << 48 : 0) | (mirrorY ? 1L << 49 : 0) | (long)scale << 50;
+        int bucket = SpriteCache.hash(key) & (this.table.length - 1);
+        for (Entry entry = this.table[bucket]; entry != null; entry = entry.nextInBucket) {
+            if (entry.key == key) {
+                this.hits++;
+                this.touch(entry);
+                return entry;
+            }
+        }
+
+        this.misses++;
+        Entry entry = this.build(sprite, color, mirrorX, mirrorY, scale);
+        entry.key = key;
+        while (this.used + entry.bytes > this.budget && this.oldest != null) {
+            this.remove(this.oldest);
+        }
+        this.insert(entry);
+        return entry;
+    }
+
+    /**
+     * Removes every cached sprite
+     */
+    public void clear() {
+        Arrays.fill(this.table, null);
+        this.newest = null;
+        this.oldest = null;
+        this.used = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Sets the most bytes the cached sprites may use, removing sprites until they fit
+     *
+     * @param budget the byte budget
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+        while (this.used > this.budget && this.oldest != null) {
+            this.remove(this.oldest);
+        }
+    }
+
+    /**
+     * Used to get the byte budget of the cache
+     * 
+     * @return the most bytes the cached sprites may use
+     */
+    public long getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * Used to get roughly how many bytes the cached sprites use
+     * 
+     * @return the bytes in use
+     */
+    public long getUsedBytes() {
+        return this.used;
+    }
+
+    /**
+     * Used to find how many sprites are cached
+     * 
+     * @return the number of cached sprites
+     */
+    public int getSize() {
+        return this.count;
+    }
+
+    /**
+     * Used to find how many times a sprite was already cached
+     * 
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Used to find how many times a sprite had to be built
+     * 
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    private Entry build(int sprite, int color, boolean mirrorX, boolean mirrorY, int scale) {
+        int size = 8 * scale;
+        Entry entry = new Entry();
+        entry.size = size;
+        entry.pixels = new byte[size * size];
+        entry.rows = new int[size + 1];
+        int[] spans = new int[size * 8];
+        int spanCount = 0;
+
+        int[] cols = new int[8];
+        for (int y = 0; y < 8; y++) {
+            int ySheet = mirrorY ? 7 - y : y;
+            int bits = this.sheet.getRow(sprite, ySheet);
+            for (int x = 0; x < 8; x++) {
+                int xSheet = mirrorX ? 7 - x : x;
+                cols[x] = (color >> (((bits >>> (xSheet << 1)) & 3) << 3)) & 255;
+            }
+
+            for (int yScale = 0; yScale < scale; yScale++) {
+                int row = y * scale + yScale;
+                entry.rows[row] = spanCount;
+                int start = -1;
+                for (int x = 0; x < 8; x++) {
+                    if (cols[x] < 255) {
+                        Arrays.fill(entry.pixels, row * size + x * scale, row * size + (x + 1) * scale, (byte)cols[x]);
+                        if (start < 0) start = x * scale;
+                    } else if (start >= 0) {
+                        spans[spanCount++] = start;
+                        spans[spanCount++] = x * scale;
+                        start = -1;
+                    }
+                }
+                if (start >= 0) {
+                    spans[spanCount++] = start;
+                    spans[spanCount++] = size;
+                }
+            }
+        }
+        entry.rows[size] = spanCount;
+        entry.spans = Arrays.copyOf(spans, spanCount);
+        entry.bytes = 64 + entry.pixels.length + 4L * (entry.spans.length + entry.rows.length);
+        return entry;
+    }
+
+    private void insert(Entry entry) {
+        if (this.count >= this.table.length * 3 / 4) this.grow();
+
+        int bucket = SpriteCache.hash(entry.key) & (this.table.length - 1);
+        entry.nextInBucket = this.table[bucket];
+        this.table[bucket] = entry;
+
+        entry.older = this.newest;
+        entry.newer = null;
+        if (this.newest != null) this.newest.newer = entry;
+        this.newest = entry;
+        if (this.oldest == null) this.oldest = entry;
+
+        this.used += entry.bytes;
+        this.count++;
+    }
+
+    private void remove(Entry entry) {
+        int bucket = SpriteCache.hash(entry.key) & (this.table.length - 1);
+        if (this.table[bucket] == entry) {
+            this.table[bucket] = entry.nextInBucket;
+        } else {
+            Entry previous = this.table[bucket];
+            while (previous.nextInBucket != entry) previous = previous.nextInBucket;
+            previous.nextInBucket = entry.nextInBucket;
+        }
+        entry.nextInBucket = null;
+
+        this.unlink(entry);
+        this.used -= entry.bytes;
+        this.count--;
+    }
+
+    private void touch(Entry entry) {
+        if (this.newest == entry) return;
+        this.unlink(entry);
+        entry.older = this.newest;
+        entry.newer = null;
+        this.newest.newer = entry;
+        this.newest = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.newer != null) {
+            entry.newer.older = entry.older;
+        } else {
+            this.newest = entry.older;
+        }
+        if (entry.older != null) {
+            entry.older.newer = entry.newer;
+        } else {
+            this.oldest = entry.newer;
+        }
+        entry.newer = null;
+        entry.older = null;
+    }
+
+    private void grow() {
+        Entry[] old = this.table;
+        this.table = new Entry[old.length * 2];
+        for (Entry head: old) {
+            for (Entry entry = head; entry != null; ) {
+                Entry next = entry.nextInBucket;
+                int bucket = SpriteCache.hash(entry.key) & (this.table.length - 1);
+                entry.nextInBucket = this.table[bucket];
+                this.table[bucket] = entry;
+                entry = next;
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+
+    private static long estimateBytes(int scale) {
+        int size = 8 * scale;
+        return 64 + (long)size * size + 4L * (size * 8 + size + 1);
+    }
+}
@@ -1,7 +1,16 @@
 package gamengine.gfx;
 
 import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import javax.imageio.ImageIO;
 
@@ -11,6 +20,21 @@ import javax.imageio.ImageIO;
  */
 public class SpriteSheet {
 
+    /**
+     * The first 4 bytes of a binary spritesheet
+     */
+    static final int MAGIC = 0x474d5353;
+
+    /**
+     * The version of the binary spritesheet format, binary spritesheets with other versions are ignored
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the header of a binary spritesheet (magic, version, width and height)
+     */
+    static final int HEADER_SIZE = 16;
+
     /**
      * The pixel width of the {@link SpriteSheet}
      */
@@ -22,16 +46,47 @@ public class SpriteSheet {
     protected int height;
 
     /**
-     * The an integer array that holds all the pixels in the {@link SpriteSheet}
+     * The pixels of the {@link SpriteSheet}, packed as 2 bits each from 0 to 3
+     * <p>Each row starts on a new {@code long} and the pixel at {@code x} is at bit {@code (x % 32) * 2} of the row's {@code long} number {@code x / 32}</p>
+     */
+    protected long[] pixels;
+
+    /**
+     * The number of {@code long}s in each row of {@code pixels}
+     */
+    protected int stride;
+
+    /**
+     * Used for instantiating a {@link SpriteSheet} from pixels that are already reduced to 0-3
+     *
+     * @param width the pixel width of the sheet
+     * @param height the pixel height of the sheet
+     * @param pixels the pixels of the sheet, each from 0 to 3
+     */
+    SpriteSheet(int width, int height, int[] pixels) {
+        this.pack(width, height, pixels);
+    }
+
+    /**
+     * Used for instantiating a {@link SpriteSheet} from an image
+     *
+     * @param image the image of the spritesheet
      */
-    protected int[] pixels;
+    SpriteSheet(BufferedImage image) {
+        this.read(image);
+    }
 
     /**
      * Used for instantiating a {@link SpriteSheet}
+     * <p>When a binary spritesheet made by {@link SpriteSheetCompiler} is next to the image (with the extension {@code .sheet}), that is loaded instead without decoding the image</p>
      *
      * @param path the path to the location of the spritesheet
      */
     public SpriteSheet(String path) {
+        if (this.load(SpriteSheet.getBinaryPath(path))) {
+            return;
+        }
+
         BufferedImage image = null;
         try {
             image = ImageIO.read(SpriteSheet.class.getResourceAsStream(path));
@@ -43,12 +98,142 @@ public class SpriteSheet {
             return;
         }
 
-        this.width = image.getWidth();
-        this.height = image.getHeight();
-        this.pixels = image.getRGB(0, 0, this.width, this.height, null, 0, this.width);
+        this.read(image);
+    }
+
+    /**
+     * Used to get the path of the binary spritesheet for an image
+     *
+     * @param path the path of the image
+     * @return the path with its extension replaced by {@code .sheet}
+     */
+    static String getBinaryPath(String path) {
+        int dot = path.lastIndexOf('.');
+        if (dot <= path.lastIndexOf('/')) dot = path.length();
+        return path.substring(0, dot) + ".sheet";
+    }
 
-        for (int i = 0; i < this.pixels.length; i++) {
-            this.pixels[i] = (this.pixels[i] & 0xff) / 64;
+    /**
+     * Writes the spritesheet in the binary format
+     * <p>The format is the {@code int}s {@link SpriteSheet#MAGIC}, {@link SpriteSheet#VERSION}, {@code width} and {@code height}, followed by {@code pixels} as big-endian {@code long}s</p>
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(this.width);
+        data.writeInt(this.height);
+        for (long pixel: this.pixels) {
+            data.writeLong(pixel);
+        }
+        data.flush();
+    }
+
+    /**
+     * Loads a binary spritesheet from the classpath, mapping it straight from disk when it is a file
+     *
+     * @param path the path to the binary spritesheet
+     * @return if the binary spritesheet was found and is valid
+     */
+    private boolean load(String path) {
+        URL url = SpriteSheet.class.getResource(path);
+        if (url == null) {
+            return false;
+        }
+
+        try {
+            ByteBuffer buffer;
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } else {
+                try (InputStream in = url.openStream()) {
+                    buffer = ByteBuffer.wrap(in.readAllBytes());
+                }
+            }
+            return this.load(buffer);
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Copies the pixels of a binary spritesheet
+     *
+     * @param buffer the bytes of the binary spritesheet
+     * @return if the binary spritesheet is valid
+     */
+    private boolean load(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return false;
+        }
+
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int stride = (width + 31) >>> 5;
+        if (width <= 0 || height <= 0 || buffer.remaining() != (long)stride * height * 8) {
+            return false;
+        }
+
+        this.width = width;
+        this.height = height;
+        this.stride = stride;
+        this.pixels = new long[stride * height];
+        buffer.asLongBuffer().get(this.pixels);
+        return true;
+    }
+
+    /**
+     * Reduces the pixels of an image to 0-3 and packs them
+     *
+     * @param image the image of the spritesheet
+     */
+    private void read(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = (pixels[i] & 0xff) / 64;
+        }
+        this.pack(width, height, pixels);
+    }
+
+    /**
+     * Used to get a row of a sprite, with the pixel at {@code x} in bits {@code x * 2} and {@code x * 2 + 1}
+     * <p>Decode a pixel with {@code (row >>> (x << 1)) & 3}</p>
+     *
+     * @param sprite the index of the sprite (32 sprites per row of the sheet)
+     * @param y the row of the sprite from 0 to 7
+     * @return the 8 pixels of the row, packed into 16 bits
+     */
+    int getRow(int sprite, int y) {
+        int xPixel = (sprite % 32) << 3;
+        int yPixel = ((sprite / 32) << 3) + y;
+        return (int)(this.pixels[yPixel * this.stride + (xPixel >>> 5)] >>> ((xPixel & 31) << 1)) & 0xffff;
+    }
+
+    /**
+     * Packs pixels from 0 to 3 into {@code pixels}
+     *
+     * @param width the pixel width of the sheet
+     * @param height the pixel height of the sheet
+     * @param pixels the pixels of the sheet, each from 0 to 3
+     */
+    private void pack(int width, int height, int[] pixels) {
+        this.width = width;
+        this.height = height;
+        this.stride = (width + 31) >>> 5;
+        this.pixels = new long[this.stride * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                this.pixels[y * this.stride + (x >>> 5)] |= (long)(pixels[x + y * width] & 3) << ((x & 31) << 1);
+            }
         }
     }
 }
@@ -0,0 +1,77 @@
+package gamengine.gfx;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A class that turns PNG spritesheets into binary spritesheets that a {@link SpriteSheet} can load without decoding
+ * <p>Used by the {@code compileSpriteSheets} Gradle task</p>
+ */
+public class SpriteSheetCompiler {
+
+    /**
+     * Compiles every PNG spritesheet in a directory
+     * <p>Each {@code .png} is written to the same relative path in {@code args[1]} with the extension {@code .sheet}</p>
+     *
+     * @param args the directory to read PNGs from and the directory to write binary spritesheets to
+     * @throws IOException if a spritesheet can't be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SpriteSheetCompiler <input directory> <output directory>");
+            System.exit(1);
+        }
+
+        int count = SpriteSheetCompiler.compileAll(new File(args[0]), new File(args[1]));
+        System.out.println("Compiled " + count + " spritesheets");
+    }
+
+    /**
+     * Compiles every PNG spritesheet in a directory and its subdirectories
+     *
+     * @param input the directory to read PNGs from
+     * @param output the directory to write binary spritesheets to
+     * @return the number of spritesheets that were compiled
+     * @throws IOException if a spritesheet can't be read or written
+     */
+    public static int compileAll(File input, File output) throws IOException {
+        File[] files = input.listFiles();
+        if (files == null) return 0;
+
+        int count = 0;
+        for (File file: files) {
+            if (file.isDirectory()) {
+                count += SpriteSheetCompiler.compileAll(file, new File(output, file.getName()));
+            } else if (file.getName().toLowerCase().endsWith(".png")) {
+                SpriteSheetCompiler.compile(file, new File(output, SpriteSheet.getBinaryPath(file.getName())));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Compiles a single PNG spritesheet
+     *
+     * @param input the PNG to read
+     * @param output the binary spritesheet to write
+     * @throws IOException if the spritesheet can't be read or written
+     */
+    public static void compile(File input, File output) throws IOException {
+        BufferedImage image = ImageIO.read(input);
+        if (image == null) {
+            throw new IOException("Not an image: " + input);
+        }
+
+        output.getParentFile().mkdirs();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(output))) {
+            new SpriteSheet(image).write(out);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package gamengine.gfx;
+
+import java.util.Arrays;
+
+/**
+ * A class that holds editable text in a gap buffer and keeps track of the length of every line
+ * <p>Editing near the last edit only moves the characters in between, and the line lengths and the longest line are updated with each edit instead of measuring the whole text</p>
+ */
+public class TextBuffer implements CharSequence {
+
+    private char[] chars = new char[16];
+    private int gapStart = 0;
+    private int gapEnd = 16;
+    /**
+     * The line that the gap is in
+     */
+    private int gapLine = 0;
+
+    private int[] lineLengths = new int[4];
+    private int lineCount = 1;
+    /**
+     * The number of lines of every length, used to find the longest line
+     */
+    private int[] lengthCounts = new int[16];
+    private int maxLineLength = 0;
+
+    /**
+     * Used for instantiating an empty {@link TextBuffer}
+     */
+    public TextBuffer() {
+        this.lengthCounts[0] = 1;
+    }
+
+    /**
+     * Used for instantiating a {@link TextBuffer}
+     *
+     * @param text the starting text
+     */
+    public TextBuffer(CharSequence text) {
+        this();
+        this.set(text);
+    }
+
+    @Override
+    public int length() {
+        return this.chars.length - (this.gapEnd - this.gapStart);
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= this.length()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + this.length());
+        }
+        return index < this.gapStart ? this.chars[index] : this.chars[index + this.gapEnd - this.gapStart];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return this.toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(this.length());
+        text.append(this.chars, 0, this.gapStart);
+        text.append(this.chars, this.gapEnd, this.chars.length - this.gapEnd);
+        return text.toString();
+    }
+
+    /**
+     * Replaces all the text
+     *
+     * @param text the new text
+     */
+    public void set(CharSequence text) {
+        this.chars = new char[Math.max(16, text.length() * 2)];
+        this.gapStart = 0;
+        this.gapEnd = this.chars.length;
+        this.gapLine = 0;
+        this.lineLengths[0] = 0;
+        this.lineCount = 1;
+        Arrays.fill(this.lengthCounts, 0);
+        this.lengthCounts[0] = 1;
+        this.maxLineLength = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            this.insert(i, text.charAt(i));
+        }
+    }
+
+    /**
+     * Inserts a character
+     *
+     * @param index where to insert the character, from 0 to {@link TextBuffer#length()}
+     * @param c the character to insert
+     */
+    public void insert(int index, char c) {
+        if (index < 0 || index > this.length()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + this.length());
+        }
+        this.moveGap(index);
+        if (this.gapStart == this.gapEnd) this.grow();
+
+        int length = this.lineLengths[this.gapLine];
+        if (c == '\n') {
+            int column = this.getColumn();
+            this.removeLength(length);
+            this.addLength(column);
+            this.addLength(length - column);
+            this.lineLengths[this.gapLine] = column;
+            this.insertLine(this.gapLine + 1, length - column);
+            this.gapLine++;
+        } else {
+            this.removeLength(length);
+            this.addLength(length + 1);
+            this.lineLengths[this.gapLine] = length + 1;
+        }
+        this.chars[this.gapStart++] = c;
+    }
+
+    /**
+     * Removes a character
+     *
+     * @param index the index of the character to remove
+     */
+    public void delete(int index) {
+        if (index < 0 || index >= this.length()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + this.length());
+        }
+        this.moveGap(index + 1);
+        char c = this.chars[--this.gapStart];
+
+        int length = this.lineLengths[this.gapLine];
+        if (c == '\n') {
+            int previous = this.lineLengths[this.gapLine - 1];
+            this.removeLength(previous);
+            this.removeLength(length);
+            this.addLength(previous + length);
+            this.removeLine(this.gapLine);
+            this.gapLine--;
+            this.lineLengths[this.gapLine] = previous + length;
+        } else {
+            this.removeLength(length);
+            this.addLength(length - 1);
+            this.lineLengths[this.gapLine] = length - 1;
+        }
+    }
+
+    /**
+     * Used to get the number of lines, which is one more than the number of {@code '\n'}s
+     *
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return this.lineCount;
+    }
+
+    /**
+     * Used to get the number of characters in a line, not counting the {@code '\n'}
+     *
+     * @param line the index of the line
+     * @return the length of the line
+     */
+    public int getLineLength(int line) {
+        return this.lineLengths[line];
+    }
+
+    /**
+     * Used to get the length of the longest line
+     *
+     * @return the length of the longest line
+     */
+    public int getMaxLineLength() {
+        return this.maxLineLength;
+    }
+
+    /**
+     * Moves the gap so it starts at {@code index}, keeping track of the line it is in
+     */
+    private void moveGap(int index) {
+        if (index < this.gapStart) {
+            int count = this.gapStart - index;
+            for (int i = index; i < this.gapStart; i++) {
+                if (this.chars[i] == '\n') this.gapLine--;
+            }
+            System.arraycopy(this.chars, index, this.chars, this.gapEnd - count, count);
+            this.gapStart -= count;
+            this.gapEnd -= count;
+        } else if (index > this.gapStart) {
+            int count = index - this.gapStart;
+            for (int i = this.gapEnd; i < this.gapEnd + count; i++) {
+                if (this.chars[i] == '\n') this.gapLine++;
+            }
+            System.arraycopy(this.chars, this.gapEnd, this.chars, this.gapStart, count);
+            this.gapStart += count;
+            this.gapEnd += count;
+        }
+    }
+
+    /**
+     * Used to find how far the gap is from the start of its line
+     */
+    private int getColumn() {
+        int i = this.gapStart;
+        while (i > 0 && this.chars[i - 1] != '\n') {
+            i--;
+        }
+        return this.gapStart - i;
+    }
+
+    private void grow() {
+        char[] chars = new char[this.chars.length * 2];
+        int tail = this.chars.length - this.gapEnd;
+        System.arraycopy(this.chars, 0, chars, 0, this.gapStart);
+        System.arraycopy(this.chars, this.gapEnd, chars, chars.length - tail, tail);
+        this.gapEnd = chars.length - tail;
+        this.chars = chars;
+    }
+
+    private void insertLine(int line, int length) {
+        if (this.lineCount == this.lineLengths.length) {
+            this.lineLengths = Arrays.copyOf(this.lineLengths, this.lineLengths.length * 2);
+        }
+        System.arraycopy(this.lineLengths, line, this.lineLengths, line + 1, this.lineCount - line);
+        this.lineLengths[line] = length;
+        this.lineCount++;
+    }
+
+    private void removeLine(int line) {
+        System.arraycopy(this.lineLengths, line + 1, this.lineLengths, line, this.lineCount - line - 1);
+        this.lineCount--;
+    }
+
+    private void addLength(int length) {
+        if (length >= this.lengthCounts.length) {
+            this.lengthCounts = Arrays.copyOf(this.lengthCounts, Math.max(length + 1, this.lengthCounts.length * 2));
+        }
+        this.lengthCounts[length]++;
+        if (length > this.maxLineLength) this.maxLineLength = length;
+    }
+
+    private void removeLength(int length) {
+        this.lengthCounts[length]--;
+        while (this.maxLineLength > 0 && this.lengthCounts[this.maxLineLength] == 0) {
+            this.maxLineLength--;
+        }
+    }
+}
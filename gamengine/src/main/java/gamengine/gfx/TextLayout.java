@@ -0,0 +1,111 @@
+package gamengine.gfx;
+
+/**
+ * A class that holds text that has already been measured and turned into sprites
+ * <p>Used for text that doesn't change, so it is only laid out once instead of every time it is rendered</p>
+ */
+public class TextLayout {
+
+    private int scale;
+    private int width;
+    private int height;
+    private int lines;
+    private int count;
+    private int[] glyphs;
+    private int[] xs;
+    private int[] ys;
+
+    /**
+     * Used for instantiating a {@link TextLayout}
+     *
+     * @param text the text to lay out, lines are split by {@code '\n'}
+     * @param scale value to scale the text by
+     */
+    public TextLayout(CharSequence text, int scale) {
+        this.scale = scale;
+        this.glyphs = new int[text.length()];
+        this.xs = new int[text.length()];
+        this.ys = new int[text.length()];
+
+        int maxLength = 0;
+        int length = 0;
+        int line = 0;
+        int currX = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                line++;
+                length = 0;
+                currX = 0;
+                continue;
+            }
+            length++;
+            if (length > maxLength) maxLength = length;
+            if (length == 1) this.lines = line + 1;
+
+            int glyph = Font.getGlyph(c);
+            if (glyph >= 0) {
+                this.glyphs[this.count] = glyph;
+                this.xs[this.count] = currX;
+                this.ys[this.count] = line * 8 * scale;
+                this.count++;
+                currX += 8 * scale;
+            }
+        }
+        if (text.length() == 0) this.lines = 1;
+
+        this.width = 8 * scale * maxLength;
+        this.height = 8 * scale * this.lines;
+    }
+
+    /**
+     * Renders the text to the screen
+     *
+     * @param screen screen on which to render the text
+     * @param x x-coord of the text
+     * @param y y-coord of the text
+     * @param color color to render the text (Use {@link Colors#get(int, int, int, int)})
+     * @param offset if the text should be rendered with an offset
+     */
+    public void render(Screen screen, int x, int y, int color, boolean offset) {
+        for (int i = 0; i < this.count; i++) {
+            screen.render(x + this.xs[i], y + this.ys[i], this.glyphs[i], color, false, false, this.scale, offset);
+        }
+    }
+
+    /**
+     * Used to get the width of the text, from the longest line
+     *
+     * @return the width of the text in pixels
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Used to get the height of the text, not counting empty lines at the end
+     *
+     * @return the height of the text in pixels
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Used to get the number of lines in the text, not counting empty lines at the end
+     *
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return this.lines;
+    }
+
+    /**
+     * Used to get the scale of the text
+     *
+     * @return the value the text is scaled by
+     */
+    public int getScale() {
+        return this.scale;
+    }
+}
@@ -0,0 +1,272 @@
+package gamengine.gfx;
+
+import java.util.Arrays;
+
+/**
+ * A class for drawing large grids of 8x8 sprites
+ * <p>Tiles are stored in chunks of {@link TileMap#CHUNK_SIZE} by {@link TileMap#CHUNK_SIZE} tiles,
+ * and only the chunks that are on the screen are drawn</p>
+ * <p>Each drawn chunk is kept as an image until one of its tiles changes, so drawing a chunk again is one image drawn onto the screen instead of a sprite for every tile</p>
+ */
+public class TileMap {
+
+    /**
+     * The width and height of a chunk in tiles
+     */
+    public static final int CHUNK_SIZE = 16;
+    private static final int CHUNK_PIXELS = CHUNK_SIZE * 8;
+    private static final int EMPTY = -1;
+
+    private int width;
+    private int height;
+    private int chunksX;
+    private int chunksY;
+
+    /**
+     * The sprite of every tile in each chunk, {@code null} for chunks without tiles
+     */
+    private short[][] sprites;
+    /**
+     * The color of every tile in each chunk, {@code null} for chunks without tiles
+     */
+    private int[][] colors;
+
+    /**
+     * The drawn image of each chunk, {@code null} if it isn't cached
+     */
+    private byte[][] images;
+    /**
+     * The last time each chunk was drawn, counted in calls to {@link TileMap#render(Screen)}
+     */
+    private long[] lastDrawn;
+    /**
+     * The chunks that have a cached image
+     */
+    private int[] cached;
+    private int cachedCount = 0;
+    private long renders = 0;
+
+    private SpriteSheet sheet;
+    private Screen chunkScreen;
+
+    /**
+     * Used for instantiating a {@link TileMap} that caches up to 256 chunk images
+     *
+     * @param width the width of the map in tiles
+     * @param height the height of the map in tiles
+     */
+    public TileMap(int width, int height) {
+        this(width, height, 256);
+    }
+
+    /**
+     * Used for instantiating a {@link TileMap}
+     *
+     * @param width the width of the map in tiles
+     * @param height the height of the map in tiles
+     * @param maxCachedChunks the most chunk images to keep, each one uses {@code (CHUNK_SIZE * 8)^2} bytes
+     */
+    public TileMap(int width, int height, int maxCachedChunks) {
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        int chunks = this.chunksX * this.chunksY;
+        this.sprites = new short[chunks][];
+        this.colors = new int[chunks][];
+        this.images = new byte[chunks][];
+        this.lastDrawn = new long[chunks];
+        this.cached = new int[Math.max(1, maxCachedChunks)];
+    }
+
+    /**
+     * Sets a tile of the map
+     *
+     * @param x x-coord of the tile
+     * @param y y-coord of the tile
+     * @param sprite location of a sprite from a {@link SpriteSheet}, from 0 to 32767
+     * @param color color to render tile (Use {@link Colors#get(int color1, int color2, int color3, int color4)})
+     */
+    public void setTile(int x, int y, int sprite, int color) {
+        if (sprite < 0 || sprite > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Sprites have to be between 0 and " + Short.MAX_VALUE + ": " + sprite);
+        }
+        int chunk = this.chunkOf(x, y);
+        if (this.sprites[chunk] == null) {
+            this.sprites[chunk] = new short[CHUNK_SIZE * CHUNK_SIZE];
+            this.colors[chunk] = new int[CHUNK_SIZE * CHUNK_SIZE];
+            Arrays.fill(this.sprites[chunk], (short)EMPTY);
+        }
+
+        int tile = TileMap.tileOf(x, y);
+        if (this.sprites[chunk][tile] == sprite && this.colors[chunk][tile] == color) return;
+        this.sprites[chunk][tile] = (short)sprite;
+        this.colors[chunk][tile] = color;
+        this.invalidate(chunk);
+    }
+
+    /**
+     * Removes a tile from the map, so nothing is drawn there
+     *
+     * @param x x-coord of the tile
+     * @param y y-coord of the tile
+     */
+    public void clearTile(int x, int y) {
+        int chunk = this.chunkOf(x, y);
+        if (this.sprites[chunk] == null) return;
+
+        int tile = TileMap.tileOf(x, y);
+        if (this.sprites[chunk][tile] == EMPTY) return;
+        this.sprites[chunk][tile] = (short)EMPTY;
+        this.invalidate(chunk);
+    }
+
+    /**
+     * Used to get the sprite of a tile
+     *
+     * @param x x-coord of the tile
+     * @param y y-coord of the tile
+     * @return the sprite of the tile, or -1 if there is no tile
+     */
+    public int getSprite(int x, int y) {
+        int chunk = this.chunkOf(x, y);
+        if (this.sprites[chunk] == null) return EMPTY;
+        return this.sprites[chunk][TileMap.tileOf(x, y)];
+    }
+
+    /**
+     * Used to get the color of a tile
+     *
+     * @param x x-coord of the tile
+     * @param y y-coord of the tile
+     * @return the color of the tile
+     */
+    public int getColor(int x, int y) {
+        int chunk = this.chunkOf(x, y);
+        if (this.sprites[chunk] == null) return 0;
+        return this.colors[chunk][TileMap.tileOf(x, y)];
+    }
+
+    /**
+     * Renders every chunk that is on the screen, with the top-left tile at (0, 0) before the screen's offset
+     *
+     * @param screen screen on which to render the map
+     */
+    public void render(Screen screen) {
+        if (screen.sheet != this.sheet) {
+            this.sheet = screen.sheet;
+            this.chunkScreen = null;
+            for (int i = 0; i < this.cachedCount; i++) {
+                this.images[this.cached[i]] = null;
+            }
+            this.cachedCount = 0;
+        }
+        this.renders++;
+
+        int firstX = Math.max(0, Math.floorDiv(screen.xOffset, CHUNK_PIXELS));
+        int firstY = Math.max(0, Math.floorDiv(screen.yOffset, CHUNK_PIXELS));
+        int lastX = Math.min(this.chunksX - 1, Math.floorDiv(screen.xOffset + screen.width - 1, CHUNK_PIXELS));
+        int lastY = Math.min(this.chunksY - 1, Math.floorDiv(screen.yOffset + screen.height - 1, CHUNK_PIXELS));
+
+        for (int cy = firstY; cy <= lastY; cy++) {
+            for (int cx = firstX; cx <= lastX; cx++) {
+                int chunk = cx + cy * this.chunksX;
+                if (this.sprites[chunk] == null) continue;
+
+                byte[] image = this.getImage(chunk);
+                screen.render(cx * CHUNK_PIXELS, cy * CHUNK_PIXELS, image, CHUNK_PIXELS, CHUNK_PIXELS, true);
+            }
+        }
+    }
+
+    /**
+     * Used to get the width of the map
+     * 
+     * @return the width in tiles
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Used to get the height of the map
+     * 
+     * @return the height in tiles
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Used to get the cached image of a chunk, drawing it first if needed
+     * <p>When the cache is full, the image of the chunk that was drawn longest ago is reused</p>
+     */
+    private byte[] getImage(int chunk) {
+        this.lastDrawn[chunk] = this.renders;
+        if (this.images[chunk] != null) return this.images[chunk];
+
+        byte[] image = null;
+        boolean keep = true;
+        if (this.cachedCount < this.cached.length) {
+            this.cached[this.cachedCount++] = chunk;
+        } else {
+            int oldest = 0;
+            for (int i = 1; i < this.cachedCount; i++) {
+                if (this.lastDrawn[this.cached[i]] < this.lastDrawn[this.cached[oldest]]) oldest = i;
+            }
+
+            if (this.lastDrawn[this.cached[oldest]] == this.renders) {
+                // Every cached image is on the screen this frame and may still be queued, so don't reuse any of them
+                keep = false;
+            } else {
+                image = this.images[this.cached[oldest]];
+                this.images[this.cached[oldest]] = null;
+                this.cached[oldest] = chunk;
+            }
+        }
+        if (image == null) image = new byte[CHUNK_PIXELS * CHUNK_PIXELS];
+
+        if (this.chunkScreen == null) {
+            this.chunkScreen = new Screen(CHUNK_PIXELS, CHUNK_PIXELS, this.sheet, image);
+        } else {
+            this.chunkScreen.setPixels(image);
+        }
+
+        Arrays.fill(image, (byte)255);
+        short[] sprites = this.sprites[chunk];
+        int[] colors = this.colors[chunk];
+        for (int tile = 0; tile < sprites.length; tile++) {
+            if (sprites[tile] == EMPTY) continue;
+            this.chunkScreen.render(tile % CHUNK_SIZE * 8, tile / CHUNK_SIZE * 8, sprites[tile], colors[tile], false, false, 1, false);
+        }
+
+        if (keep) this.images[chunk] = image;
+        return image;
+    }
+
+    /**
+     * Throws away the cached image of a chunk so it is drawn again next time
+     */
+    private void invalidate(int chunk) {
+        if (this.images[chunk] == null) return;
+        this.images[chunk] = null;
+        for (int i = 0; i < this.cachedCount; i++) {
+            if (this.cached[i] == chunk) {
+                this.cached[i] = this.cached[--this.cachedCount];
+                break;
+            }
+        }
+    }
+
+    private int chunkOf(int x, int y) {
+        if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+            throw new IndexOutOfBoundsException("Tile (" + x + ", " + y + ") is outside the " + this.width + "x" + this.height + " map");
+        }
+        return x / CHUNK_SIZE + y / CHUNK_SIZE * this.chunksX;
+    }
+
+    private static int tileOf(int x, int y) {
+        return x % CHUNK_SIZE + y % CHUNK_SIZE * CHUNK_SIZE;
+    }
+}
@@ -0,0 +1,101 @@
+package gamengine.gfx;
+
+/**
+ * A class used to scale color codes up into RGB pixels by a whole number
+ * <p>Each row of the source is turned into colors once and then copied for the remaining rows with {@link System#arraycopy}, which is a lot cheaper than letting {@link java.awt.Graphics#drawImage} scale every frame</p>
+ */
+public class Upscaler {
+
+    /**
+     * Scales the whole of {@code indices} into {@code pixels}, looking up the color of every color code on the way
+     *
+     * @param indices the color codes to scale
+     * @param width the width of {@code indices}
+     * @param height the height of {@code indices}
+     * @param colors the RGB value of every color code (Use {@link Colors#getPalette()})
+     * @param pixels the RGB pixels to write to, {@code width * scale} by {@code height * scale} in size
+     * @param scale how many times bigger {@code pixels} is than {@code indices}
+     */
+    public static void scale(byte[] indices, int width, int height, int[] colors, int[] pixels, int scale) {
+        Upscaler.scale(indices, width, height, colors, pixels, scale, 0, 0, width, height);
+    }
+
+    /**
+     * Scales a rectangle of {@code indices} into {@code pixels}, looking up the color of every color code on the way
+     * <p>Transparent color codes (255) leave the pixels under them untouched</p>
+     *
+     * @param indices the color codes to scale
+     * @param width the width of {@code indices}
+     * @param height the height of {@code indices}
+     * @param colors the RGB value of every color code (Use {@link Colors#getPalette()})
+     * @param pixels the RGB pixels to write to, {@code width * scale} by {@code height * scale} in size
+     * @param scale how many times bigger {@code pixels} is than {@code indices}
+     * @param x the X-coordinate of the rectangle in {@code indices}
+     * @param y the Y-coordinate of the rectangle in {@code indices}
+     * @param w the width of the rectangle
+     * @param h the height of the rectangle
+     */
+    public static void scale(byte[] indices, int width, int height, int[] colors, int[] pixels, int scale, int x, int y, int w, int h) {
+        int x1 = Math.min(x + w, width);
+        int y1 = Math.min(y + h, height);
+        if (x < 0) x = 0;
+        if (y < 0) y = 0;
+        if (x >= x1 || y >= y1) return;
+
+        int scaledWidth = width * scale;
+        int rowLength = (x1 - x) * scale;
+        for (int yy = y; yy < y1; yy++) {
+            int src = yy * width;
+            int dst = yy * scale * scaledWidth + x * scale;
+            switch (scale) {
+                case 1:
+                    for (int xx = x; xx < x1; xx++) {
+                        int colorCode = indices[src + xx] & 0xff;
+                        if (colorCode < 255) pixels[dst] = colors[colorCode];
+                        dst++;
+                    }
+                    break;
+                case 2:
+                    for (int xx = x; xx < x1; xx++) {
+                        int colorCode = indices[src + xx] & 0xff;
+                        if (colorCode < 255) {
+                            int color = colors[colorCode];
+                            pixels[dst] = color;
+                            pixels[dst + 1] = color;
+                        }
+                        dst += 2;
+                    }
+                    break;
+                case 3:
+                    for (int xx = x; xx < x1; xx++) {
+                        int colorCode = indices[src + xx] & 0xff;
+                        if (colorCode < 255) {
+                            int color = colors[colorCode];
+                            pixels[dst] = color;
+                            pixels[dst + 1] = color;
+                            pixels[dst + 2] = color;
+                        }
+                        dst += 3;
+                    }
+                    break;
+                default:
+                    for (int xx = x; xx < x1; xx++) {
+                        int colorCode = indices[src + xx] & 0xff;
+                        if (colorCode < 255) {
+                            int color = colors[colorCode];
+                            for (int i = 0; i < scale; i++) {
+                                pixels[dst + i] = color;
+                            }
+                        }
+                        dst += scale;
+                    }
+                    break;
+            }
+
+            int first = yy * scale * scaledWidth + x * scale;
+            for (int i = 1; i < scale; i++) {
+                System.arraycopy(pixels, first, pixels, first + i * scaledWidth, rowLength);
+            }
+        }
+    }
+}
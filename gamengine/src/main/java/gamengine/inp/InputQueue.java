@@ -0,0 +1,130 @@
+package gamengine.inp;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free ring buffer that carries input events from the AWT event thread to the game thread
+ * <p>Only one thread may add events and only one thread may drain them</p>
+ */
+class InputQueue {
+
+    /**
+     * A key or button was pressed, the code is the key or button
+     */
+    static final int PRESSED = 0;
+    /**
+     * A key or button was released, the code is the key or button
+     */
+    static final int RELEASED = 1;
+    /**
+     * The mouse moved, the x and y are the new position
+     */
+    static final int MOVED = 2;
+
+    private static final long[] NO_EVENTS = new long[0];
+
+    private final long[] events;
+    private final long[] times;
+    private final int mask;
+    /**
+     * The index of the next event to drain, only written by the draining thread
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * The index of the next event to add, only written by the adding thread
+     */
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped = 0;
+
+    /**
+     * Used for instantiating an {@link InputQueue}
+     *
+     * @param capacity the number of events that can be waiting, rounded up to a power of two
+     */
+    InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.events = new long[size];
+        this.times = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an event, dropping it if the queue is full
+     *
+     * @param type {@link InputQueue#PRESSED}, {@link InputQueue#RELEASED} or {@link InputQueue#MOVED}
+     * @param code the key or button
+     * @param x the x-coord of the mouse
+     * @param y the y-coord of the mouse
+     * @param time when the event happened, from {@link System#nanoTime()}
+     * @return if the event was added
+     */
+    boolean offer(int type, int code, int x, int y, long time) {
+        long tail = this.tail.get();
+        if (tail - this.head.get() > this.mask) {
+            this.dropped++;
+            return false;
+        }
+        int index = (int)tail & this.mask;
+        this.events[index] = InputQueue.pack(type, code, x, y);
+        this.times[index] = time;
+        this.tail.lazySet(tail + 1);
+        return true;
+    }
+
+    /**
+     * Takes every waiting event and applies them on top of the previous snapshot
+     *
+     * @param previous the snapshot of the last tick
+     * @return the snapshot of this tick
+     */
+    InputSnapshot drain(InputSnapshot previous) {
+        long head = this.head.get();
+        long tail = this.tail.get();
+        int count = (int)(tail - head);
+        if (count == 0) {
+            return new InputSnapshot(previous, InputQueue.NO_EVENTS, InputQueue.NO_EVENTS);
+        }
+
+        long[] events = new long[count];
+        long[] times = new long[count];
+        for (int i = 0; i < count; i++) {
+            int index = (int)(head + i) & this.mask;
+            events[i] = this.events[index];
+            times[i] = this.times[index];
+        }
+        this.head.lazySet(tail);
+        return new InputSnapshot(previous, events, times);
+    }
+
+    /**
+     * Used to find how many events were lost because the queue was full
+     *
+     * @return the number of dropped events
+     */
+    long getDropped() {
+        return this.dropped;
+    }
+
+    /**
+     * Packs an event into a {@code long}, 8 bits of type, 16 bits of code and 16 bits each for x and y
+     */
+    static long pack(int type, int code, int x, int y) {
+        return (long)(type & 0xff) << 48 | (long)(code & 0xffff) << 32 | (long)(x & 0xffff) << 16 | (y & 0xffff);
+    }
+
+    static int getType(long event) {
+        return (int)(event >>> 48) & 0xff;
+    }
+
+    static int getCode(long event) {
+        return (int)(event >>> 32) & 0xffff;
+    }
+
+    static int getX(long event) {
+        return (short)(event >>> 16);
+    }
+
+    static int getY(long event) {
+        return (short)event;
+    }
+}
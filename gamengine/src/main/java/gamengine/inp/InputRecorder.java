@@ -0,0 +1,111 @@
+package gamengine.inp;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A class that writes the input of every tick to a compact binary log, which an {@link InputReplay} can play back
+ * <p>Ticks without input only add to a counter, so idle stretches take a few bytes no matter how long they are</p>
+ */
+public class InputRecorder implements Closeable {
+
+    /**
+     * The first 4 bytes of an input log
+     */
+    static final int MAGIC = 0x47494e50;
+
+    /**
+     * The version of the input log format
+     */
+    static final int VERSION = 1;
+
+    private DataOutputStream out;
+    private int idleTicks = 0;
+    private long ticks = 0;
+
+    /**
+     * Used for instantiating an {@link InputRecorder}
+     *
+     * @param out the stream to write the log to
+     * @throws IOException if the header can't be written
+     */
+    public InputRecorder(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+    }
+
+    /**
+     * Records the input of a tick
+     * <p>The {@link gamengine.Game} calls this after polling its handlers when it has a recorder</p>
+     *
+     * @param keyboard the keyboard snapshot of the tick
+     * @param mouse the mouse snapshot of the tick
+     * @throws IOException if the log can't be written
+     */
+    public void record(InputSnapshot keyboard, InputSnapshot mouse) throws IOException {
+        this.ticks++;
+        if (keyboard.getEventCount() == 0 && mouse.getEventCount() == 0) {
+            this.idleTicks++;
+            return;
+        }
+
+        InputRecorder.writeVarInt(this.out, this.idleTicks);
+        InputRecorder.writeVarInt(this.out, keyboard.getEventCount());
+        InputRecorder.writeVarInt(this.out, mouse.getEventCount());
+        this.writeEvents(keyboard);
+        this.writeEvents(mouse);
+        this.idleTicks = 0;
+    }
+
+    /**
+     * Used to find how many ticks have been recorded
+     *
+     * @return the number of recorded ticks
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Ends the log and closes the stream
+     * <p>The idle ticks at the end are kept, so a replay lasts exactly as many ticks as were recorded</p>
+     *
+     * @throws IOException if the log can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        InputRecorder.writeVarInt(this.out, this.idleTicks);
+        InputRecorder.writeVarInt(this.out, 0);
+        InputRecorder.writeVarInt(this.out, 0);
+        this.out.close();
+    }
+
+    private void writeEvents(InputSnapshot snapshot) throws IOException {
+        for (int i = 0; i < snapshot.getEventCount(); i++) {
+            long event = snapshot.getEvent(i);
+            int type = InputQueue.getType(event);
+            this.out.writeByte(type);
+            if (type == InputQueue.MOVED) {
+                this.out.writeShort(InputQueue.getX(event));
+                this.out.writeShort(InputQueue.getY(event));
+            } else {
+                this.out.writeShort(InputQueue.getCode(event));
+            }
+        }
+    }
+
+    /**
+     * Writes a non-negative number in as few bytes as it needs, 7 bits per byte
+     */
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
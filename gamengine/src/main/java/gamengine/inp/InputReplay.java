@@ -0,0 +1,135 @@
+package gamengine.inp;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A class that plays back an input log made by an {@link InputRecorder}
+ * <p>Each tick's events are fed to the {@link KeyHandler} and {@link MouseHandler} in place of the live input, so a game sees exactly the same input on every run</p>
+ */
+public class InputReplay implements Closeable {
+
+    private static final long[] NO_EVENTS = new long[0];
+
+    private DataInputStream in;
+    private int idleTicks;
+    private long[] keyboardEvents;
+    private long[] mouseEvents;
+    private boolean ended = false;
+    private long ticks = 0;
+
+    /**
+     * Used for instantiating an {@link InputReplay}
+     *
+     * @param in the stream to read the log from
+     * @throws IOException if the stream isn't an input log
+     */
+    public InputReplay(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if (this.in.readInt() != InputRecorder.MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        int version = this.in.readInt();
+        if (version != InputRecorder.VERSION) {
+            throw new IOException("Unsupported input log version " + version);
+        }
+        this.readBlock();
+    }
+
+    /**
+     * Used to find if there are ticks left to play back
+     *
+     * @return if the replay has more ticks
+     */
+    public boolean hasNext() {
+        return !this.ended || this.idleTicks > 0;
+    }
+
+    /**
+     * Feeds the input of the next tick to the handlers
+     * <p>The {@link gamengine.Game} calls this instead of polling its handlers when it has a replay</p>
+     *
+     * @param keyboard the keyboard to feed
+     * @param mouse the mouse to feed
+     * @throws IOException if the log can't be read
+     */
+    public void next(KeyHandler keyboard, MouseHandler mouse) throws IOException {
+        if (!this.hasNext()) {
+            keyboard.replay(NO_EVENTS);
+            mouse.replay(NO_EVENTS);
+            return;
+        }
+
+        this.ticks++;
+        if (this.idleTicks > 0) {
+            this.idleTicks--;
+            keyboard.replay(NO_EVENTS);
+            mouse.replay(NO_EVENTS);
+            return;
+        }
+
+        keyboard.replay(this.keyboardEvents);
+        mouse.replay(this.mouseEvents);
+        this.readBlock();
+    }
+
+    /**
+     * Used to find how many ticks have been played back
+     *
+     * @return the number of played ticks
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    /**
+     * Reads the idle ticks and the events of the next tick with input
+     */
+    private void readBlock() throws IOException {
+        this.idleTicks = InputReplay.readVarInt(this.in);
+        int keyboardCount = InputReplay.readVarInt(this.in);
+        int mouseCount = InputReplay.readVarInt(this.in);
+        if (keyboardCount == 0 && mouseCount == 0) {
+            this.ended = true;
+            return;
+        }
+        this.keyboardEvents = this.readEvents(keyboardCount);
+        this.mouseEvents = this.readEvents(mouseCount);
+    }
+
+    private long[] readEvents(int count) throws IOException {
+        long[] events = new long[count];
+        for (int i = 0; i < count; i++) {
+            int type = this.in.readUnsignedByte();
+            if (type == InputQueue.MOVED) {
+                int x = this.in.readShort();
+                int y = this.in.readShort();
+                events[i] = InputQueue.pack(type, 0, x, y);
+            } else {
+                events[i] = InputQueue.pack(type, this.in.readUnsignedShort(), 0, 0);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Reads a number written by {@code InputRecorder.writeVarInt}
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed number in input log");
+    }
+}
@@ -0,0 +1,199 @@
+package gamengine.inp;
+
+/**
+ * A class that holds the input state of a single tick, which never changes once it is made
+ * <p>Besides which keys or buttons are down, it knows which were pressed or released during the tick, so edges can be found without checking every key</p>
+ */
+public final class InputSnapshot {
+
+    /**
+     * The number of key or button codes a snapshot keeps track of
+     */
+    public static final int CODES = 525;
+
+    private static final long[] NO_EVENTS = new long[0];
+    /**
+     * The bits of a snapshot where nothing was pressed or released, shared because it never changes
+     */
+    private static final long[] NO_BITS = new long[(CODES + 63) >>> 6];
+
+    private final long[] down;
+    private final long[] pressed;
+    private final long[] released;
+    private final int x;
+    private final int y;
+    private final long[] events;
+    private final long[] times;
+
+    /**
+     * Used for instantiating an empty {@link InputSnapshot}, with nothing down and the mouse at (0, 0)
+     */
+    InputSnapshot() {
+        this.down = new long[NO_BITS.length];
+        this.pressed = NO_BITS;
+        this.released = NO_BITS;
+        this.x = 0;
+        this.y = 0;
+        this.events = NO_EVENTS;
+        this.times = NO_EVENTS;
+    }
+
+    /**
+     * Used for instantiating the {@link InputSnapshot} that follows another one
+     *
+     * @param previous the snapshot of the previous tick
+     * @param events the events of this tick, packed by {@link InputQueue#pack(int, int, int, int)}
+     * @param times when each event happened
+     */
+    InputSnapshot(InputSnapshot previous, long[] events, long[] times) {
+        this.events = events;
+        this.times = times;
+        if (events.length == 0) {
+            this.down = previous.down;
+            this.pressed = NO_BITS;
+            this.released = NO_BITS;
+            this.x = previous.x;
+            this.y = previous.y;
+            return;
+        }
+
+        this.down = previous.down.clone();
+        this.pressed = new long[this.down.length];
+        this.released = new long[this.down.length];
+        int x = previous.x;
+        int y = previous.y;
+        for (long event: events) {
+            int code = InputQueue.getCode(event);
+            switch (InputQueue.getType(event)) {
+                case InputQueue.PRESSED:
+                    if (code >= CODES) break;
+                    this.down[code >>> 6] |= 1L << code;
+                    this.pressed[code >>> 6] |= 1L << code;
+                    break;
+                case InputQueue.RELEASED:
+                    if (code >= CODES) break;
+                    this.down[code >>> 6] &= ~(1L << code);
+                    this.released[code >>> 6] |= 1L << code;
+                    break;
+                case InputQueue.MOVED:
+                    x = InputQueue.getX(event);
+                    y = InputQueue.getY(event);
+                    break;
+            }
+        }
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Used to find if a key or button is down at the end of the tick
+     *
+     * @param code the key ({@link java.awt.event.KeyEvent#VK_A}) or button ({@link java.awt.event.MouseEvent#BUTTON1})
+     * @return if the key or button is down
+     */
+    public boolean isDown(int code) {
+        return InputSnapshot.get(this.down, code);
+    }
+
+    /**
+     * Used to find if a key or button was pressed during the tick, even if it was released again
+     *
+     * @param code the key ({@link java.awt.event.KeyEvent#VK_A}) or button ({@link java.awt.event.MouseEvent#BUTTON1})
+     * @return if the key or button was pressed
+     */
+    public boolean wasPressed(int code) {
+        return InputSnapshot.get(this.pressed, code);
+    }
+
+    /**
+     * Used to find if a key or button was released during the tick
+     *
+     * @param code the key ({@link java.awt.event.KeyEvent#VK_A}) or button ({@link java.awt.event.MouseEvent#BUTTON1})
+     * @return if the key or button was released
+     */
+    public boolean wasReleased(int code) {
+        return InputSnapshot.get(this.released, code);
+    }
+
+    /**
+     * Used to go through the keys or buttons that were pressed during the tick
+     * <p>Loop with {@code for (int code = snapshot.nextPressed(0); code >= 0; code = snapshot.nextPressed(code + 1))}</p>
+     *
+     * @param from the code to start looking from
+     * @return the first pressed code from {@code from} on, or -1 if there are none
+     */
+    public int nextPressed(int from) {
+        return InputSnapshot.next(this.pressed, from);
+    }
+
+    /**
+     * Used to go through the keys or buttons that were released during the tick
+     *
+     * @param from the code to start looking from
+     * @return the first released code from {@code from} on, or -1 if there are none
+     */
+    public int nextReleased(int from) {
+        return InputSnapshot.next(this.released, from);
+    }
+
+    /**
+     * Used to find the x-position of the mouse at the end of the tick
+     *
+     * @return the x coordinate of the mouse
+     */
+    public int getX() {
+        return this.x;
+    }
+
+    /**
+     * Used to find the y-position of the mouse at the end of the tick
+     *
+     * @return the y coordinate of the mouse
+     */
+    public int getY() {
+        return this.y;
+    }
+
+    /**
+     * Used to find how many input events happened during the tick
+     *
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return this.events.length;
+    }
+
+    /**
+     * Used to get an event of the tick, packed by {@link InputQueue#pack(int, int, int, int)}
+     */
+    long getEvent(int index) {
+        return this.events[index];
+    }
+
+    /**
+     * Used to get when an event of the tick happened, from {@link System#nanoTime()}
+     */
+    long getEventTime(int index) {
+        return this.times[index];
+    }
+
+    private static boolean get(long[] bits, int code) {
+        if (code < 0 || code >= CODES) return false;
+        return (bits[code >>> 6] & (1L << code)) != 0;
+    }
+
+    private static int next(long[] bits, int from) {
+        if (from < 0) from = 0;
+        int word = from >>> 6;
+        if (word >= bits.length) return -1;
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (current != 0) {
+                int code = (word << 6) + Long.numberOfTrailingZeros(current);
+                return code < CODES ? code : -1;
+            }
+            if (++word == bits.length) return -1;
+            current = bits[word];
+        }
+    }
+}
@@ -7,6 +7,7 @@ import gamengine.Game;
 
 /**
  * A class for checking if {@link Key}s are pressed or released
+ * <p>Key-strokes are queued by the AWT event thread and only take effect when {@link KeyHandler#poll()} is called, which the {@link Game} does before every tick</p>
  */
 public class KeyHandler implements KeyListener {
 
@@ -63,22 +64,59 @@ public class KeyHandler implements KeyListener {
         }
     }
 
-    private Key[] keys = new Key[525];
+    private Key[] keys = new Key[InputSnapshot.CODES];
+    private InputQueue queue = new InputQueue(1024);
+    private InputSnapshot snapshot = new InputSnapshot();
 
     public void keyTyped(KeyEvent e) {
         
     }
 
     public void keyPressed(KeyEvent e) {
-        this.toggleKey(e.getKeyCode(), true);
+        if (e.getKeyCode() < this.keys.length) this.queue.offer(InputQueue.PRESSED, e.getKeyCode(), 0, 0, System.nanoTime());
     }
 
     public void keyReleased(KeyEvent e) {
-        this.toggleKey(e.getKeyCode(), false);
+        if (e.getKeyCode() < this.keys.length) this.queue.offer(InputQueue.RELEASED, e.getKeyCode(), 0, 0, System.nanoTime());
     }
 
-    private void toggleKey(int keyCode, boolean pressed) {
-        this.keys[keyCode].toggle(pressed);
+    /**
+     * Takes every key-stroke since the last poll and makes a new {@link InputSnapshot} from them
+     * <p>The {@link Game} calls this before every tick, so it is only needed for a {@link KeyHandler} that the game didn't make</p>
+     */
+    public void poll() {
+        this.apply(this.queue.drain(this.snapshot));
+    }
+
+    /**
+     * Makes a new {@link InputSnapshot} from recorded events instead of the queued ones, used by {@link InputReplay}
+     *
+     * @param events the recorded events of the tick
+     */
+    void replay(long[] events) {
+        this.apply(new InputSnapshot(this.snapshot, events, new long[events.length]));
+    }
+
+    /**
+     * Makes {@code snapshot} the current snapshot and applies its events to the keys
+     */
+    private void apply(InputSnapshot snapshot) {
+        this.snapshot = snapshot;
+        for (int i = 0; i < this.snapshot.getEventCount(); i++) {
+            long event = this.snapshot.getEvent(i);
+            int keyCode = InputQueue.getCode(event);
+            if (keyCode >= this.keys.length) continue;
+            this.keys[keyCode].toggle(InputQueue.getType(event) == InputQueue.PRESSED);
+        }
+    }
+
+    /**
+     * Used to get the state of the keyboard during the current tick
+     *
+     * @return the latest snapshot of the keyboard
+     */
+    public InputSnapshot getSnapshot() {
+        return this.snapshot;
     }
 
     /**
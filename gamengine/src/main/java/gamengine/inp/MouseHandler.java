@@ -8,12 +8,13 @@ import gamengine.Game;
 
 /**
  * A class for checking for both mouse motion and mouse click events
+ * <p>Mouse events are queued by the AWT event thread and only take effect when {@link MouseHandler#poll()} is called, which the {@link Game} does before every tick</p>
  */
 public class MouseHandler {
 
-    private int x = 0;
-    private int y = 0;
     private int scale;
+    private InputQueue queue = new InputQueue(4096);
+    private InputSnapshot snapshot = new InputSnapshot();
 
     private MouseButton[] buttons = new MouseButton[] {new MouseButton(), new MouseButton(), new MouseButton()}; 
 
@@ -58,9 +59,45 @@ public class MouseHandler {
         }
     }
 
-    private void move(int x, int y) {
-        this.x = x;
-        this.y = y;
+    /**
+     * Takes every mouse event since the last poll and makes a new {@link InputSnapshot} from them
+     * <p>The {@link Game} calls this before every tick, so it is only needed for a {@link MouseHandler} that the game didn't make</p>
+     */
+    public void poll() {
+        this.apply(this.queue.drain(this.snapshot));
+    }
+
+    /**
+     * Makes a new {@link InputSnapshot} from recorded events instead of the queued ones, used by {@link InputReplay}
+     *
+     * @param events the recorded events of the tick
+     */
+    void replay(long[] events) {
+        this.apply(new InputSnapshot(this.snapshot, events, new long[events.length]));
+    }
+
+    /**
+     * Makes {@code snapshot} the current snapshot and applies its events to the buttons
+     */
+    private void apply(InputSnapshot snapshot) {
+        this.snapshot = snapshot;
+        for (int i = 0; i < this.snapshot.getEventCount(); i++) {
+            long event = this.snapshot.getEvent(i);
+            int type = InputQueue.getType(event);
+            int button = InputQueue.getCode(event);
+            if (type == InputQueue.MOVED || button < 1 || button > this.buttons.length) continue;
+            this.buttons[button - 1].toggle(type == InputQueue.PRESSED);
+        }
+    }
+
+    /**
+     * Used to get the state of the mouse during the current tick
+     * <p>Buttons use the codes {@link MouseEvent#BUTTON1}, {@link MouseEvent#BUTTON2} and {@link MouseEvent#BUTTON3}</p>
+     *
+     * @return the latest snapshot of the mouse
+     */
+    public InputSnapshot getSnapshot() {
+        return this.snapshot;
     }
 
     /**
@@ -69,7 +106,7 @@ public class MouseHandler {
      * @return the x coordinate of the mouse
      */
     public int getX() {
-        return this.x;
+        return this.snapshot.getX();
     }
 
     /**
@@ -78,7 +115,7 @@ public class MouseHandler {
      * @return the y coordinate of the mouse
      */
     public int getY() {
-        return this.y;
+        return this.snapshot.getY();
     }
     
     /**
@@ -87,7 +124,7 @@ public class MouseHandler {
      * @return the x and y coordinates of the mouse in an array (x, y)
      */
     public int[] getPos() {
-        return new int[] {this.x, this.y};
+        return new int[] {this.snapshot.getX(), this.snapshot.getY()};
     }
 
     /**
@@ -122,11 +159,11 @@ public class MouseHandler {
         }
 
         public void mousePressed(MouseEvent e) {
-            buttons[e.getButton() - 1].toggle(true);
+            queue.offer(InputQueue.PRESSED, e.getButton(), 0, 0, System.nanoTime());
         }
 
         public void mouseReleased(MouseEvent e) {
-            buttons[e.getButton() - 1].toggle(false);
+            queue.offer(InputQueue.RELEASED, e.getButton(), 0, 0, System.nanoTime());
         }
 
         public void mouseEntered(MouseEvent e) {
@@ -145,11 +182,11 @@ public class MouseHandler {
         }
 
         public void mouseDragged(MouseEvent e) {
-            move((int)e.getX() / scale, (int)e.getY() / scale);
+            queue.offer(InputQueue.MOVED, 0, (int)e.getX() / scale, (int)e.getY() / scale, System.nanoTime());
         }
 
         public void mouseMoved(MouseEvent e) {
-            move((int)e.getX() / scale, (int)e.getY() / scale);
+            queue.offer(InputQueue.MOVED, 0, (int)e.getX() / scale, (int)e.getY() / scale, System.nanoTime());
         }
     }
 }
@@ -0,0 +1,44 @@
+package gamengine.net;
+
+/**
+ * A class for packets that are sent as typed binary fields instead of a string
+ * <p>Each type of packet declares its fields by writing and reading them in the same order, for example a position update might be</p>
+ * <pre>
+ * public void write(PacketWriter out) {
+ *     out.writeVarInt(this.id);
+ *     out.writeFloat(this.x);
+ *     out.writeFloat(this.y);
+ *     out.writeBoolean(this.moving);
+ * }
+ *
+ * public void read(PacketReader in) {
+ *     this.id = in.readVarInt();
+ *     this.x = in.readFloat();
+ *     this.y = in.readFloat();
+ *     this.moving = in.readBoolean();
+ * }
+ * </pre>
+ */
+public abstract class BinaryPacket {
+
+    /**
+     * Used for instantiating a {@link BinaryPacket}
+     */
+    public BinaryPacket() {
+
+    }
+
+    /**
+     * Writes the fields of the packet
+     *
+     * @param out the writer to write the fields to
+     */
+    public abstract void write(PacketWriter out);
+
+    /**
+     * Reads the fields of the packet, in the same order as {@link BinaryPacket#write(PacketWriter)}
+     *
+     * @param in the reader to read the fields from
+     */
+    public abstract void read(PacketReader in);
+}
@@ -1,19 +1,18 @@
 package gamengine.net;
 
-import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
 
 /**
  * A class that is used to run a client
+ * <p>Datagrams are received by a {@link Transport} and turned into {@link GameClient#clientRun(String, String)} calls, override {@link GameClient#receive(ByteBuffer, SocketAddress)} to handle the raw bytes instead</p>
  */
-public abstract class GameClient extends Thread {
+public abstract class GameClient extends Transport {
     
-    private InetAddress ipAddress;
-    private DatagramSocket socket;
+    private InetSocketAddress server;
 
     /**
      * Used for instantiating a {@link GameClient}
@@ -21,11 +20,9 @@ public abstract class GameClient extends Thread {
      * @param ipAddress the ipAddress of the server
      */
     public GameClient(String ipAddress) {
+        super(0);
         try {
-            this.socket = new DatagramSocket();
-            this.ipAddress = InetAddress.getByName(ipAddress);
-        } catch (SocketException e) {
-            e.printStackTrace();
+            this.server = new InetSocketAddress(InetAddress.getByName(ipAddress), GameServer.PORT);
         } catch (UnknownHostException e) {
             e.printStackTrace();
         }
@@ -39,34 +36,58 @@ public abstract class GameClient extends Thread {
      */
     public abstract void clientRun(String packetID, String data);
 
-    public void run() {
-        while (true) {
-            byte[] data = new byte[1024];
-            DatagramPacket packet = new DatagramPacket(data, data.length);
-            try {
-                socket.receive(packet);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-            String message = new String(packet.getData()).trim();
-            String id = message.substring(0, 2);
-            this.clientRun(id, message.substring(2));
+    /**
+     * Decodes the datagram as a {@link Packet} and calls {@link GameClient#clientRun(String, String)}
+     *
+     * @param data a read-only view of the datagram
+     * @param address the address the datagram came from
+     */
+    @Override
+    public void receive(ByteBuffer data, SocketAddress address) {
+        PacketRegistry registry = this.getRegistry();
+        if (registry != null) {
+            registry.dispatch(data, address);
+            return;
         }
+
+        String message = Packet.decodeMessage(data);
+        this.clientRun(Packet.decodeId(message), Packet.decodeData(message));
     }
 
     /**
      * A function that sends data to the server
-     * <p>Usually called at the end of {@link GameClient#clientRun(packetID, data)}</p>
+     * <p>Usually called at the end of {@link GameClient#clientRun(String, String)}</p>
      *
      * @param packet the {@link Packet} to send to the server
      */
     public void sendData(Packet packet) {
-        byte[] data = (packet.getId() + packet.getData()).getBytes();
-        DatagramPacket datagramPacket = new DatagramPacket(data, data.length, this.ipAddress, 1331);
-        try {
-            socket.send(datagramPacket);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        this.send(packet.encode(), this.server);
+    }
+
+    /**
+     * A function that queues data to be sent to the server by the next {@link Transport#flush()}, together with the other data queued for it
+     *
+     * @param packet the {@link Packet} to send to the server
+     */
+    public void queueData(Packet packet) {
+        this.queue(packet.encode(), this.server);
+    }
+
+    /**
+     * Sends the bytes of {@code data} from its position to its limit to the server
+     *
+     * @param data the bytes to send
+     */
+    public void send(ByteBuffer data) {
+        this.send(data, this.server);
+    }
+
+    /**
+     * Used to get the address of the server
+     *
+     * @return the server's address
+     */
+    public SocketAddress getServerAddress() {
+        return this.server;
     }
 }
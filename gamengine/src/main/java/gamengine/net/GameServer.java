@@ -1,27 +1,26 @@
 package gamengine.net;
 
-import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 
 /**
  * A class that is used to run a game server
+ * <p>Datagrams are received by a {@link Transport} and turned into {@link GameServer#serverRun(String, String, InetAddress, int)} calls, override {@link GameServer#receive(ByteBuffer, SocketAddress)} to handle the raw bytes instead</p>
  */
-public abstract class GameServer extends Thread {
-    
-    private DatagramSocket socket;
+public abstract class GameServer extends Transport {
+
+    /**
+     * The port the server listens on
+     */
+    public static final int PORT = 1331;
 
     /**
      * Used for instantiating a {@link GameServer}
      */
     public GameServer() {
-        try {
-            this.socket = new DatagramSocket(1331);
-        } catch (SocketException e) {
-            e.printStackTrace();
-        }
+        super(PORT);
     }
 
     /**
@@ -34,36 +33,45 @@ public abstract class GameServer extends Thread {
      */
     public abstract void serverRun(String packetID, String data, InetAddress ipAddress, int port);
 
-    public void run() {
-        while (true) {
-            byte[] data = new byte[1024];
-            DatagramPacket packet = new DatagramPacket(data, data.length);
-            try {
-                socket.receive(packet);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-            String message = new String(packet.getData()).trim();
-            String id = message.substring(0, 2);
-            this.serverRun(id, message.substring(2), packet.getAddress(), packet.getPort());
+    /**
+     * Decodes the datagram as a {@link Packet} and calls {@link GameServer#serverRun(String, String, InetAddress, int)}
+     *
+     * @param data a read-only view of the datagram
+     * @param address the address the datagram came from
+     */
+    @Override
+    public void receive(ByteBuffer data, SocketAddress address) {
+        PacketRegistry registry = this.getRegistry();
+        if (registry != null) {
+            registry.dispatch(data, address);
+            return;
         }
+
+        String message = Packet.decodeMessage(data);
+        InetSocketAddress client = (InetSocketAddress)address;
+        this.serverRun(Packet.decodeId(message), Packet.decodeData(message), client.getAddress(), client.getPort());
     }
 
     /**
      * A function that sends data to the client
-     * <p>Usually called at the end of {@link GameServer#serverRun(packetID, data, ipAddress, port)}</p>
+     * <p>Usually called at the end of {@link GameServer#serverRun(String, String, InetAddress, int)}</p>
      *
      * @param packet the {@link Packet} to send to the client
      * @param ipAddress the IP adress to which to send the data
      * @param port the port to which to send the data
      */
     public void sendData(Packet packet, InetAddress ipAddress, int port) {
-        byte[] data = (packet.getId() + packet.getData()).getBytes();
-        DatagramPacket datagramPacket = new DatagramPacket(data, data.length, ipAddress, port);
-        try {
-            socket.send(datagramPacket);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        this.send(packet.encode(), new InetSocketAddress(ipAddress, port));
+    }
+
+    /**
+     * A function that queues data to be sent to the client by the next {@link Transport#flush()}, together with the other data queued for it
+     *
+     * @param packet the {@link Packet} to send to the client
+     * @param ipAddress the IP adress to which to send the data
+     * @param port the port to which to send the data
+     */
+    public void queueData(Packet packet, InetAddress ipAddress, int port) {
+        this.queue(packet.encode(), new InetSocketAddress(ipAddress, port));
     }
-}
\ No newline at end of file
+}
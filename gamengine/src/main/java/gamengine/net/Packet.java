@@ -1,5 +1,7 @@
 package gamengine.net;
 
+import java.nio.ByteBuffer;
+
 /**
  * A class that is used to make the string data which {@link GameClient} and {@link GameServer} send to each other more manageable
  */
@@ -45,4 +47,56 @@ public abstract class Packet {
     public String getId() {
         return this.packetId;
     }
+
+    /**
+     * Used to get the bytes that are sent for this packet
+     * 
+     * @return the id followed by the data
+     */
+    byte[] encode() {
+        return (this.packetId + this.data).getBytes();
+    }
+
+    /**
+     * Turns received bytes back into the message that was sent
+     *
+     * @param data the received bytes
+     * @param length the number of received bytes
+     * @return the message with surrounding whitespace removed
+     */
+    static String decodeMessage(byte[] data, int length) {
+        return new String(data, 0, length).trim();
+    }
+
+    /**
+     * Turns a received datagram back into the message that was sent
+     *
+     * @param data the received bytes, from its position to its limit
+     * @return the message with surrounding whitespace removed
+     */
+    static String decodeMessage(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return Packet.decodeMessage(bytes, bytes.length);
+    }
+
+    /**
+     * Used to get the packet id from a received message
+     *
+     * @param message the message from {@link Packet#decodeMessage(byte[], int)}
+     * @return the id of the packet
+     */
+    static String decodeId(String message) {
+        return message.substring(0, 2);
+    }
+
+    /**
+     * Used to get the packet data from a received message
+     *
+     * @param message the message from {@link Packet#decodeMessage(byte[], int)}
+     * @return the data of the packet
+     */
+    static String decodeData(String message) {
+        return message.substring(2);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package gamengine.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A class that reads the typed fields of a {@link BinaryPacket} back from a {@link ByteBuffer}
+ * <p>Fields have to be read in the same order that the {@link PacketWriter} wrote them</p>
+ */
+public class PacketReader {
+
+    private ByteBuffer buffer;
+    private int bits;
+    private int bitCount = 8;
+
+    /**
+     * Used for instantiating a {@link PacketReader}
+     * <p>Call {@link PacketReader#wrap(ByteBuffer)} before reading</p>
+     */
+    public PacketReader() {
+
+    }
+
+    /**
+     * Used for instantiating a {@link PacketReader} that reads from a buffer
+     *
+     * @param buffer the buffer to read from, starting at its position
+     */
+    public PacketReader(ByteBuffer buffer) {
+        this.wrap(buffer);
+    }
+
+    /**
+     * Starts reading from a buffer, so one reader can be reused for every packet
+     *
+     * @param buffer the buffer to read from, starting at its position
+     * @return this reader
+     */
+    public PacketReader wrap(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bitCount = 8;
+        return this;
+    }
+
+    /**
+     * Used to get the buffer that is being read from
+     *
+     * @return the buffer
+     */
+    public ByteBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Reads a boolean written by {@link PacketWriter#writeBoolean(boolean)}
+     *
+     * @return the value that was written
+     */
+    public boolean readBoolean() {
+        if (this.bitCount == 8) {
+            this.bits = this.buffer.get();
+            this.bitCount = 0;
+        }
+        return (this.bits >>> this.bitCount++ & 1) != 0;
+    }
+
+    /**
+     * Reads a byte written by {@link PacketWriter#writeByte(int)}
+     *
+     * @return the value that was written
+     */
+    public byte readByte() {
+        return this.buffer.get();
+    }
+
+    /**
+     * Reads a short written by {@link PacketWriter#writeShort(int)}
+     *
+     * @return the value that was written
+     */
+    public short readShort() {
+        return this.buffer.getShort();
+    }
+
+    /**
+     * Reads an int written by {@link PacketWriter#writeInt(int)}
+     *
+     * @return the value that was written
+     */
+    public int readInt() {
+        return this.buffer.getInt();
+    }
+
+    /**
+     * Reads a long written by {@link PacketWriter#writeLong(long)}
+     *
+     * @return the value that was written
+     */
+    public long readLong() {
+        return this.buffer.getLong();
+    }
+
+    /**
+     * Reads a float written by {@link PacketWriter#writeFloat(float)}
+     *
+     * @return the value that was written
+     */
+    public float readFloat() {
+        return this.buffer.getFloat();
+    }
+
+    /**
+     * Reads an int written by {@link PacketWriter#writeVarInt(int)}
+     *
+     * @return the value that was written
+     */
+    public int readVarInt() {
+        int zigzag = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = this.buffer.get();
+            zigzag |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    /**
+     * Reads a string written by {@link PacketWriter#writeString(CharSequence, int)}, without the zeros at the end
+     *
+     * @param length the number of bytes the string was written in
+     * @return the value that was written
+     */
+    public String readString(int length) {
+        StringBuilder value = new StringBuilder(length);
+        this.readString(length, value);
+        return value.toString();
+    }
+
+    /**
+     * Reads a string written by {@link PacketWriter#writeString(CharSequence, int)} into a builder, so no {@link String} is made
+     *
+     * @param length the number of bytes the string was written in
+     * @param value the builder to add the characters to, without the zeros at the end
+     */
+    public void readString(int length, StringBuilder value) {
+        int end = this.buffer.position() + length;
+        for (int i = 0; i < length; i++) {
+            int c = this.buffer.get() & 0xff;
+            if (c == 0) break;
+            value.append((char)c);
+        }
+        this.buffer.position(end);
+    }
+}
@@ -0,0 +1,181 @@
+package gamengine.net;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A class that maps integer packet ids to the {@link BinaryPacket} type and handler for each id
+ * <p>Every packet on the wire starts with its id, which is looked up in an array, and packets are taken from and given back to a pool for each type so handling them doesn't allocate</p>
+ */
+public class PacketRegistry {
+
+    /**
+     * A handler for one type of {@link BinaryPacket}
+     *
+     * @param <T> the type of packet
+     */
+    public interface Handler<T extends BinaryPacket> {
+
+        /**
+         * This function is called for every packet of the type that is received
+         * <p>The packet goes back to its pool when this returns, so it must not be kept</p>
+         *
+         * @param packet the received packet
+         * @param address the address the packet came from
+         */
+        void handle(T packet, SocketAddress address);
+    }
+
+    /**
+     * Everything the registry knows about one packet id
+     */
+    private static class Type {
+
+        private int id;
+        private Supplier<? extends BinaryPacket> factory;
+        private Handler<BinaryPacket> handler;
+        private BinaryPacket[] pool = new BinaryPacket[8];
+        private int pooled = 0;
+    }
+
+    private volatile Type[] types = new Type[16];
+    private Map<Class<?>, Type> classes = new ConcurrentHashMap<Class<?>, Type>();
+    private PacketReader reader = new PacketReader();
+
+    /**
+     * Used for instantiating an empty {@link PacketRegistry}
+     */
+    public PacketRegistry() {
+
+    }
+
+    /**
+     * Registers a type of packet
+     *
+     * @param <T> the type of packet
+     * @param id the id of the packet, small ids take the fewest bytes
+     * @param type the class of the packet
+     * @param factory makes a new packet when the pool is empty
+     * @param handler handles received packets, or {@code null} for packets that are only sent
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends BinaryPacket> void register(int id, Class<T> type, Supplier<T> factory, Handler<? super T> handler) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Packet ids can't be negative: " + id);
+        }
+        if (this.classes.containsKey(type) || (id < this.types.length && this.types[id] != null)) {
+            throw new IllegalArgumentException("Packet id " + id + " or " + type.getName() + " is already registered");
+        }
+        Type entry = new Type();
+        entry.id = id;
+        entry.factory = factory;
+        entry.handler = (Handler<BinaryPacket>)handler;
+
+        Type[] types = Arrays.copyOf(this.types, Math.max(id + 1, this.types.length));
+        types[id] = entry;
+        this.classes.put(type, entry);
+        this.types = types;
+    }
+
+    /**
+     * Used to get a packet to fill and send, from the pool of its type
+     * <p>Give it back with {@link PacketRegistry#recycle(BinaryPacket)} once it is sent</p>
+     *
+     * @param <T> the type of packet
+     * @param type the class of the packet
+     * @return a packet from the pool, or a new one if the pool is empty
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends BinaryPacket> T obtain(Class<T> type) {
+        return (T)this.obtain(this.getType(type));
+    }
+
+    /**
+     * Gives a packet back to the pool of its type
+     *
+     * @param packet the packet to give back
+     */
+    public void recycle(BinaryPacket packet) {
+        Type type = this.getType(packet.getClass());
+        synchronized (type) {
+            if (type.pooled < type.pool.length) {
+                type.pool[type.pooled++] = packet;
+            }
+        }
+    }
+
+    /**
+     * Used to get the id a type of packet was registered with
+     *
+     * @param type the class of the packet
+     * @return the id of the packet
+     */
+    public int getId(Class<? extends BinaryPacket> type) {
+        return this.getType(type).id;
+    }
+
+    /**
+     * Writes the id of a packet followed by its fields
+     *
+     * @param packet the packet to write
+     * @param out the writer to write to
+     */
+    public void write(BinaryPacket packet, PacketWriter out) {
+        out.writeVarInt(this.getType(packet.getClass()).id);
+        packet.write(out);
+    }
+
+    /**
+     * Reads the id of a received packet, reads the packet into a pooled instance and hands it to the handler of its type
+     * <p>Must only be called from one thread at a time, like the thread of a {@link Transport}</p>
+     *
+     * @param data the received bytes
+     * @param address the address the packet came from
+     * @return if the packet had a registered id with a handler
+     */
+    public boolean dispatch(ByteBuffer data, SocketAddress address) {
+        PacketReader in = this.reader.wrap(data);
+        int id = in.readVarInt();
+        Type[] types = this.types;
+        if (id < 0 || id >= types.length || types[id] == null || types[id].handler == null) {
+            return false;
+        }
+
+        Type type = types[id];
+        BinaryPacket packet = this.obtain(type);
+        try {
+            packet.read(in);
+            type.handler.handle(packet, address);
+        } finally {
+            synchronized (type) {
+                if (type.pooled < type.pool.length) {
+                    type.pool[type.pooled++] = packet;
+                }
+            }
+        }
+        return true;
+    }
+
+    private BinaryPacket obtain(Type type) {
+        synchronized (type) {
+            if (type.pooled > 0) {
+                BinaryPacket packet = type.pool[--type.pooled];
+                type.pool[type.pooled] = null;
+                return packet;
+            }
+        }
+        return type.factory.get();
+    }
+
+    private Type getType(Class<?> type) {
+        Type entry = this.classes.get(type);
+        if (entry == null) {
+            throw new IllegalArgumentException(type.getName() + " is not registered");
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,147 @@
+package gamengine.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A class that writes the typed fields of a {@link BinaryPacket} into a {@link ByteBuffer}
+ * <p>Booleans are packed 8 to a byte, and a {@link PacketReader} has to read the fields back in the same order they were written</p>
+ */
+public class PacketWriter {
+
+    private ByteBuffer buffer;
+    private int bitPosition;
+    private int bitCount = 8;
+
+    /**
+     * Used for instantiating a {@link PacketWriter}
+     * <p>Call {@link PacketWriter#wrap(ByteBuffer)} before writing</p>
+     */
+    public PacketWriter() {
+
+    }
+
+    /**
+     * Used for instantiating a {@link PacketWriter} that writes into a buffer
+     *
+     * @param buffer the buffer to write into, starting at its position
+     */
+    public PacketWriter(ByteBuffer buffer) {
+        this.wrap(buffer);
+    }
+
+    /**
+     * Starts writing into a buffer, so one writer can be reused for every packet
+     *
+     * @param buffer the buffer to write into, starting at its position
+     * @return this writer
+     */
+    public PacketWriter wrap(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bitCount = 8;
+        return this;
+    }
+
+    /**
+     * Used to get the buffer that is being written into
+     *
+     * @return the buffer
+     */
+    public ByteBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Writes a boolean as a single bit
+     * <p>Booleans share a byte with the 7 booleans that are written after them, even when other fields are written in between</p>
+     *
+     * @param value the value to write
+     */
+    public void writeBoolean(boolean value) {
+        if (this.bitCount == 8) {
+            this.bitPosition = this.buffer.position();
+            this.buffer.put((byte)0);
+            this.bitCount = 0;
+        }
+        if (value) {
+            this.buffer.put(this.bitPosition, (byte)(this.buffer.get(this.bitPosition) | (1 << this.bitCount)));
+        }
+        this.bitCount++;
+    }
+
+    /**
+     * Writes a byte
+     *
+     * @param value the value to write
+     */
+    public void writeByte(int value) {
+        this.buffer.put((byte)value);
+    }
+
+    /**
+     * Writes a short in 2 bytes
+     *
+     * @param value the value to write
+     */
+    public void writeShort(int value) {
+        this.buffer.putShort((short)value);
+    }
+
+    /**
+     * Writes an int in 4 bytes
+     *
+     * @param value the value to write
+     */
+    public void writeInt(int value) {
+        this.buffer.putInt(value);
+    }
+
+    /**
+     * Writes a long in 8 bytes
+     *
+     * @param value the value to write
+     */
+    public void writeLong(long value) {
+        this.buffer.putLong(value);
+    }
+
+    /**
+     * Writes a float in 4 bytes
+     *
+     * @param value the value to write
+     */
+    public void writeFloat(float value) {
+        this.buffer.putFloat(value);
+    }
+
+    /**
+     * Writes an int in 1 to 5 bytes, with small positive and negative numbers taking the fewest bytes
+     *
+     * @param value the value to write
+     */
+    public void writeVarInt(int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        while ((zigzag & ~0x7f) != 0) {
+            this.buffer.put((byte)((zigzag & 0x7f) | 0x80));
+            zigzag >>>= 7;
+        }
+        this.buffer.put((byte)zigzag);
+    }
+
+    /**
+     * Writes a string in exactly {@code length} bytes, one per character
+     * <p>Longer strings are cut off and shorter ones are padded with zeros, characters above 255 are written as {@code '?'}</p>
+     *
+     * @param value the value to write
+     * @param length the number of bytes to write
+     */
+    public void writeString(CharSequence value, int length) {
+        int count = Math.min(value.length(), length);
+        for (int i = 0; i < count; i++) {
+            char c = value.charAt(i);
+            this.buffer.put((byte)(c < 256 ? c : '?'));
+        }
+        for (int i = count; i < length; i++) {
+            this.buffer.put((byte)0);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package gamengine.net;
+
+import java.util.Arrays;
+
+/**
+ * A class that holds the state of the world at one tick as a fixed number of int fields
+ * <p>The game decides what each field means, for example 3 fields per entity for its x, y and angle, and {@link SnapshotSender} only sends the fields that changed</p>
+ */
+public class Snapshot {
+
+    private int tick = -1;
+    private int[] values;
+
+    /**
+     * Used for instantiating a {@link Snapshot} with every field set to 0
+     *
+     * @param size the number of fields
+     */
+    public Snapshot(int size) {
+        this.values = new int[size];
+    }
+
+    /**
+     * Used to get the tick the snapshot was taken at
+     *
+     * @return the tick, or -1 if the snapshot was never filled
+     */
+    public int getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Sets the tick the snapshot was taken at
+     *
+     * @param tick the tick, which has to go up with every snapshot that is sent
+     */
+    public void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Used to get the number of fields
+     *
+     * @return the number of fields
+     */
+    public int getSize() {
+        return this.values.length;
+    }
+
+    /**
+     * Used to get the value of a field
+     *
+     * @param index the index of the field
+     * @return the value of the field
+     */
+    public int get(int index) {
+        return this.values[index];
+    }
+
+    /**
+     * Sets the value of a field
+     *
+     * @param index the index of the field
+     * @param value the value of the field
+     */
+    public void set(int index, int value) {
+        this.values[index] = value;
+    }
+
+    /**
+     * Copies the tick and every field of another snapshot of the same size
+     *
+     * @param snapshot the snapshot to copy
+     */
+    public void copy(Snapshot snapshot) {
+        this.tick = snapshot.tick;
+        System.arraycopy(snapshot.values, 0, this.values, 0, this.values.length);
+    }
+
+    /**
+     * Writes the fields that differ from {@code baseline}, as the number of fields that changed followed by the gap since the last changed field and the difference for each one
+     *
+     * @param out the writer to write to
+     * @param baseline the snapshot to compare against, or {@code null} to compare against all zeros
+     */
+    void writeDelta(PacketWriter out, Snapshot baseline) {
+        int changed = 0;
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] != (baseline == null ? 0 : baseline.values[i])) changed++;
+        }
+        out.writeVarInt(changed);
+
+        int last = -1;
+        for (int i = 0; i < this.values.length; i++) {
+            int base = baseline == null ? 0 : baseline.values[i];
+            if (this.values[i] != base) {
+                out.writeVarInt(i - last - 1);
+                out.writeVarInt(this.values[i] - base);
+                last = i;
+            }
+        }
+    }
+
+    /**
+     * Reads fields written by {@link Snapshot#writeDelta(PacketWriter, Snapshot)} on top of {@code baseline}
+     *
+     * @param in the reader to read from
+     * @param baseline the snapshot the fields were compared against, or {@code null} for all zeros
+     */
+    void readDelta(PacketReader in, Snapshot baseline) {
+        if (baseline == null) {
+            Arrays.fill(this.values, 0);
+        } else {
+            System.arraycopy(baseline.values, 0, this.values, 0, this.values.length);
+        }
+
+        int changed = in.readVarInt();
+        int index = -1;
+        for (int i = 0; i < changed; i++) {
+            index += in.readVarInt() + 1;
+            if (index < 0 || index >= this.values.length) {
+                throw new IllegalStateException("Snapshot field " + index + " is out of range");
+            }
+            this.values[index] += in.readVarInt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package gamengine.net;
+
+/**
+ * A {@link BinaryPacket} that a {@link SnapshotReceiver} sends back for every {@link Snapshot} it read
+ */
+class SnapshotAck extends BinaryPacket {
+
+    private int tick;
+
+    /**
+     * Used for instantiating a {@link SnapshotAck}
+     */
+    SnapshotAck() {
+
+    }
+
+    /**
+     * Used to get the tick that was acknowledged
+     *
+     * @return the tick
+     */
+    int getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Sets the tick to acknowledge
+     *
+     * @param tick the tick
+     */
+    void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    public void write(PacketWriter out) {
+        out.writeVarInt(this.tick);
+    }
+
+    public void read(PacketReader in) {
+        this.tick = in.readVarInt();
+    }
+}
@@ -0,0 +1,70 @@
+package gamengine.net;
+
+/**
+ * A {@link BinaryPacket} that carries a {@link Snapshot} as a delta against an older snapshot the client acknowledged
+ * <p>The tick is followed by how many ticks back the baseline is, 0 meaning a full snapshot, and then the changed fields</p>
+ */
+class SnapshotPacket extends BinaryPacket {
+
+    private SnapshotReceiver receiver;
+    private int tick;
+    private Snapshot snapshot;
+    private Snapshot baseline;
+
+    /**
+     * Used for instantiating a {@link SnapshotPacket} that is only sent
+     */
+    SnapshotPacket() {
+
+    }
+
+    /**
+     * Used for instantiating a {@link SnapshotPacket} that is read into the history of a receiver
+     *
+     * @param receiver the receiver that holds the baselines
+     */
+    SnapshotPacket(SnapshotReceiver receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * Sets the snapshot to send
+     *
+     * @param snapshot the snapshot to send
+     * @param baseline the snapshot to send the delta against, or {@code null} for a full snapshot
+     */
+    void set(Snapshot snapshot, Snapshot baseline) {
+        this.snapshot = snapshot;
+        this.baseline = baseline;
+    }
+
+    /**
+     * Used to get the tick of the snapshot that was read
+     *
+     * @return the tick
+     */
+    int getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Used to get the snapshot that was read
+     *
+     * @return the snapshot, or {@code null} if it was older than the latest one or its baseline was gone
+     */
+    Snapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    public void write(PacketWriter out) {
+        out.writeVarInt(this.snapshot.getTick());
+        out.writeVarInt(this.baseline == null ? 0 : this.snapshot.getTick() - this.baseline.getTick());
+        this.snapshot.writeDelta(out, this.baseline);
+    }
+
+    public void read(PacketReader in) {
+        this.tick = in.readVarInt();
+        int back = in.readVarInt();
+        this.snapshot = this.receiver.read(in, this.tick, back);
+    }
+}
@@ -0,0 +1,108 @@
+package gamengine.net;
+
+import java.net.SocketAddress;
+
+/**
+ * A class that reads the {@link Snapshot}s sent by a {@link SnapshotSender} and acknowledges each one
+ * <p>The last {@link SnapshotSender#HISTORY} snapshots are kept as baselines for the deltas, and snapshots that arrive after a newer one are ignored</p>
+ * <pre>
+ * SnapshotReceiver snapshots = new SnapshotReceiver(client, 3 * MAX_ENTITIES);
+ * snapshots.register(registry, SNAPSHOT_ID, ACK_ID);
+ * client.setRegistry(registry);
+ *
+ * // every tick
+ * if (snapshots.poll(world)) { ... }
+ * </pre>
+ */
+public class SnapshotReceiver {
+
+    private Transport transport;
+    private Snapshot[] history = new Snapshot[SnapshotSender.HISTORY];
+    private Snapshot latest;
+    private SnapshotAck ack = new SnapshotAck();
+    private int dropped = 0;
+
+    /**
+     * Used for instantiating a {@link SnapshotReceiver}
+     *
+     * @param transport the transport to send acknowledgements with, it needs a {@link PacketRegistry} that this receiver is registered with
+     * @param size the number of fields in every snapshot
+     */
+    public SnapshotReceiver(Transport transport, int size) {
+        this.transport = transport;
+        for (int i = 0; i < this.history.length; i++) {
+            this.history[i] = new Snapshot(size);
+        }
+    }
+
+    /**
+     * Registers the snapshot packet and the acknowledgement packet, with the same ids as the {@link SnapshotSender} on the server
+     *
+     * @param registry the registry of the transport
+     * @param snapshotId the id of the snapshot packet
+     * @param ackId the id of the acknowledgement packet
+     */
+    public void register(PacketRegistry registry, int snapshotId, int ackId) {
+        registry.register(snapshotId, SnapshotPacket.class, () -> new SnapshotPacket(this), (packet, address) -> this.acknowledge(packet, address));
+        registry.register(ackId, SnapshotAck.class, SnapshotAck::new, null);
+    }
+
+    /**
+     * Copies the latest snapshot if it is newer than the one in {@code snapshot}
+     *
+     * @param snapshot the snapshot to copy into
+     * @return if a newer snapshot was copied
+     */
+    public synchronized boolean poll(Snapshot snapshot) {
+        if (this.latest == null || this.latest.getTick() <= snapshot.getTick()) {
+            return false;
+        }
+        snapshot.copy(this.latest);
+        return true;
+    }
+
+    /**
+     * Used to get the number of snapshots that couldn't be read because their baseline was gone
+     *
+     * @return the number of snapshots
+     */
+    public synchronized int getDropped() {
+        return this.dropped;
+    }
+
+    /**
+     * Reads a snapshot into the history
+     *
+     * @param in the reader, after the tick and baseline
+     * @param tick the tick of the snapshot
+     * @param back how many ticks back the baseline is, or 0 for a full snapshot
+     * @return the snapshot, or {@code null} if it was older than the latest one or its baseline was gone
+     */
+    synchronized Snapshot read(PacketReader in, int tick, int back) {
+        if (this.latest != null && tick <= this.latest.getTick()) {
+            return null;
+        }
+
+        Snapshot baseline = null;
+        if (back != 0) {
+            baseline = this.history[(tick - back) & (SnapshotSender.HISTORY - 1)];
+            if (back < 0 || back >= SnapshotSender.HISTORY || baseline.getTick() != tick - back) {
+                this.dropped++;
+                return null;
+            }
+        }
+
+        Snapshot snapshot = this.history[tick & (SnapshotSender.HISTORY - 1)];
+        snapshot.setTick(-1);
+        snapshot.readDelta(in, baseline);
+        snapshot.setTick(tick);
+        this.latest = snapshot;
+        return snapshot;
+    }
+
+    private void acknowledge(SnapshotPacket packet, SocketAddress address) {
+        if (packet.getSnapshot() == null) return;
+        this.ack.setTick(packet.getTick());
+        this.transport.send(this.ack, address);
+    }
+}
@@ -0,0 +1,126 @@
+package gamengine.net;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class that sends {@link Snapshot}s of the world to clients, each as a delta against the latest snapshot that client acknowledged
+ * <p>The last {@link SnapshotSender#HISTORY} snapshots sent to each client are kept, and a full snapshot is sent when the client hasn't acknowledged any of them, like when it just joined or its acknowledgements were lost</p>
+ * <pre>
+ * SnapshotSender snapshots = new SnapshotSender(server, 3 * MAX_ENTITIES);
+ * snapshots.register(registry, SNAPSHOT_ID, ACK_ID);
+ * server.setRegistry(registry);
+ *
+ * // every tick
+ * world.setTick(tick);
+ * world.set(3 * i, x); ...
+ * for (SocketAddress client : clients) snapshots.send(world, client);
+ * server.flush();
+ * </pre>
+ */
+public class SnapshotSender {
+
+    /**
+     * The number of snapshots kept for each client, a power of 2
+     */
+    public static final int HISTORY = 32;
+
+    private static class Client {
+
+        private Snapshot[] history = new Snapshot[HISTORY];
+        private volatile int acknowledged = -1;
+        private volatile int sent = -1;
+    }
+
+    private Transport transport;
+    private int size;
+    private Map<SocketAddress, Client> clients = new ConcurrentHashMap<SocketAddress, Client>();
+    private SnapshotPacket packet = new SnapshotPacket();
+
+    /**
+     * Used for instantiating a {@link SnapshotSender}
+     *
+     * @param transport the transport to send snapshots with, it needs a {@link PacketRegistry} that this sender is registered with
+     * @param size the number of fields in every snapshot
+     */
+    public SnapshotSender(Transport transport, int size) {
+        if (size > (Transport.MAX_DATAGRAM_SIZE - 16) / 10) {
+            throw new IllegalArgumentException("A full snapshot of " + size + " fields might not fit in a datagram");
+        }
+        this.transport = transport;
+        this.size = size;
+    }
+
+    /**
+     * Registers the snapshot packet and the acknowledgement packet, with the same ids as the {@link SnapshotReceiver} on the client
+     *
+     * @param registry the registry of the transport
+     * @param snapshotId the id of the snapshot packet
+     * @param ackId the id of the acknowledgement packet
+     */
+    public void register(PacketRegistry registry, int snapshotId, int ackId) {
+        registry.register(snapshotId, SnapshotPacket.class, SnapshotPacket::new, null);
+        registry.register(ackId, SnapshotAck.class, SnapshotAck::new, (ack, address) -> this.acknowledge(address, ack.getTick()));
+    }
+
+    /**
+     * Queues a snapshot for a client, as a delta against the latest snapshot it acknowledged or in full
+     * <p>The snapshot is sent with the client's other messages by the next {@link Transport#flush()}, or right away if it is too large to be batched</p>
+     * <p>Must be called from one thread, usually the game thread, with a tick that is higher than the last one sent to the client</p>
+     *
+     * @param snapshot the snapshot to send
+     * @param address the address of the client
+     */
+    public void send(Snapshot snapshot, SocketAddress address) {
+        Client client = this.clients.get(address);
+        if (client == null) {
+            client = new Client();
+            for (int i = 0; i < HISTORY; i++) {
+                client.history[i] = new Snapshot(this.size);
+            }
+            this.clients.put(address, client);
+        }
+
+        int tick = snapshot.getTick();
+        Snapshot sent = client.history[tick & (HISTORY - 1)];
+        sent.copy(snapshot);
+        client.sent = tick;
+
+        Snapshot baseline = null;
+        int acknowledged = client.acknowledged;
+        if (acknowledged >= 0 && acknowledged < tick && tick - acknowledged < HISTORY) {
+            Snapshot candidate = client.history[acknowledged & (HISTORY - 1)];
+            if (candidate.getTick() == acknowledged) baseline = candidate;
+        }
+
+        this.packet.set(sent, baseline);
+        this.transport.queue(this.packet, address);
+    }
+
+    /**
+     * Marks a snapshot as received by a client, so the next snapshots are sent as a delta against it
+     * <p>Called by the acknowledgement packet's handler, ticks that weren't among the last {@link SnapshotSender#HISTORY} sent to the client are ignored</p>
+     *
+     * @param address the address of the client
+     * @param tick the tick of the snapshot
+     */
+    public void acknowledge(SocketAddress address, int tick) {
+        Client client = this.clients.get(address);
+        if (client == null) return;
+
+        int sent = client.sent;
+        if (tick > client.acknowledged && tick <= sent && sent - tick < HISTORY) {
+            client.acknowledged = tick;
+        }
+    }
+
+    /**
+     * Forgets a client, like when it disconnects
+     *
+     * @param address the address of the client
+     */
+    public void removeClient(SocketAddress address) {
+        this.clients.remove(address);
+    }
+}
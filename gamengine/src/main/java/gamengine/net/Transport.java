@@ -0,0 +1,445 @@
+package gamengine.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class that sends and receives datagrams with a non-blocking {@link DatagramChannel}
+ * <p>Datagrams are received into a direct buffer that is reused for every datagram and handed to {@link Transport#receive(ByteBuffer, SocketAddress)} as a read-only view, so receiving doesn't allocate</p>
+ * <p>Messages can also be queued with {@link Transport#queue(ByteBuffer, SocketAddress)} during a tick and sent with {@link Transport#flush()} at the end of it, packed into as few datagrams of up to {@link Transport#getMtu()} bytes as possible for each address. Batched datagrams start with {@link Transport#BATCH} and are split back into the messages before {@link Transport#receive(ByteBuffer, SocketAddress)} is called</p>
+ * <p>Any message that starts with {@link Transport#BATCH} is always sent inside a batch, even on its own, so every message arrives with the bytes it was sent with</p>
+ */
+public abstract class Transport extends Thread {
+
+    /**
+     * The largest payload a datagram can carry, so nothing is cut off
+     */
+    public static final int MAX_DATAGRAM_SIZE = 65507;
+
+    /**
+     * The size batched datagrams are kept under by default, small enough to not be fragmented on most networks
+     */
+    public static final int DEFAULT_MTU = 1200;
+
+    /**
+     * The first byte of a batched datagram, which is followed by every message as a 2 byte length and the message's bytes
+     * <p>Neither a {@link Packet} nor a packet sent through a {@link PacketRegistry} starts with this byte, other messages that do are sent as a batch of one message</p>
+     */
+    public static final byte BATCH = (byte)0xff;
+
+    private static class Batch {
+
+        private SocketAddress address;
+        private ByteBuffer buffer;
+        private int count = 0;
+        private boolean pending = false;
+    }
+
+    private DatagramChannel channel;
+    private Selector selector;
+    private ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+    private ByteBuffer receiveView = this.receiveBuffer.asReadOnlyBuffer();
+    private ByteBuffer[] pool = new ByteBuffer[8];
+    private int pooled = 0;
+    private volatile boolean open = true;
+    private volatile PacketRegistry registry;
+    private ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+    private PacketWriter sendWriter = new PacketWriter();
+    private int mtu = DEFAULT_MTU;
+    private Map<SocketAddress, Batch> batches = new HashMap<SocketAddress, Batch>();
+    private Batch[] pending = new Batch[8];
+    private int pendingCount = 0;
+
+    /**
+     * Used for instantiating a {@link Transport}
+     *
+     * @param port the port to listen on, or 0 for any free port
+     */
+    public Transport(int port) {
+        try {
+            this.channel = DatagramChannel.open();
+            this.channel.bind(new InetSocketAddress(port));
+            this.channel.configureBlocking(false);
+            this.selector = Selector.open();
+            this.channel.register(this.selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * This function is called for every datagram that is received, on the transport's thread
+     * <p>{@code data} is only valid until this returns, so copy anything that is needed later</p>
+     *
+     * @param data a read-only view of the datagram, from its position to its limit
+     * @param address the address the datagram came from
+     */
+    public abstract void receive(ByteBuffer data, SocketAddress address);
+
+    public void run() {
+        while (this.open) {
+            try {
+                this.selector.select();
+                this.selector.selectedKeys().clear();
+                this.receiveAll();
+            } catch (ClosedChannelException | ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                if (this.open) e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Receives every datagram that is waiting without blocking
+     */
+    private void receiveAll() throws IOException {
+        while (true) {
+            this.receiveBuffer.clear();
+            SocketAddress address = this.channel.receive(this.receiveBuffer);
+            if (address == null) return;
+            int end = this.receiveBuffer.position();
+            this.receiveView.limit(end);
+            this.receiveView.position(0);
+            if (end > 0 && this.receiveBuffer.get(0) == BATCH) {
+                this.receiveBatch(end, address);
+            } else {
+                this.deliver(address);
+            }
+        }
+    }
+
+    /**
+     * Calls {@link Transport#receive(ByteBuffer, SocketAddress)} with the receive view, dropping the message if it can't be handled
+     * so a malformed datagram from anywhere doesn't stop the transport
+     */
+    private void deliver(SocketAddress address) {
+        try {
+            this.receive(this.receiveView, address);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Calls {@link Transport#receive(ByteBuffer, SocketAddress)} for every message in a batched datagram
+     */
+    private void receiveBatch(int end, SocketAddress address) {
+        int position = 1;
+        while (position + 2 <= end) {
+            int start = position + 2;
+            int length = this.receiveBuffer.getShort(position) & 0xffff;
+            if (start + length > end) return;
+
+            this.receiveView.limit(end);
+            this.receiveView.position(start);
+            this.receiveView.limit(start + length);
+            this.deliver(address);
+            position = start + length;
+        }
+    }
+
+    /**
+     * Sends the bytes of {@code data} from its position to its limit as one datagram
+     * <p>A direct buffer, like one from {@link Transport#acquireBuffer()}, is sent without being copied, unless it starts with {@link Transport#BATCH} and has to be sent as a batch</p>
+     *
+     * @param data the bytes to send, the position is moved to the limit
+     * @param address the address to send the datagram to
+     */
+    public void send(ByteBuffer data, SocketAddress address) {
+        if (!data.hasRemaining() || data.get(data.position()) != BATCH) {
+            this.write(data, address);
+            return;
+        }
+        if (data.remaining() > MAX_DATAGRAM_SIZE - 3) {
+            throw new IllegalArgumentException("A message that starts with the batch byte can be at most " + (MAX_DATAGRAM_SIZE - 3) + " bytes: " + data.remaining());
+        }
+
+        ByteBuffer buffer = this.acquireBuffer();
+        buffer.put(BATCH);
+        buffer.putShort((short)data.remaining());
+        buffer.put(data);
+        buffer.flip();
+        this.write(buffer, address);
+        this.releaseBuffer(buffer);
+    }
+
+    /**
+     * Sends the bytes of {@code data} as one datagram as they are
+     */
+    private void write(ByteBuffer data, SocketAddress address) {
+        try {
+            this.channel.send(data, address);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Sends bytes as one datagram through a pooled direct buffer
+     *
+     * @param data the bytes to send, at most {@link Transport#MAX_DATAGRAM_SIZE}
+     * @param address the address to send the datagram to
+     */
+    public void send(byte[] data, SocketAddress address) {
+        if (data.length > MAX_DATAGRAM_SIZE) {
+            throw new IllegalArgumentException("A datagram can be at most " + MAX_DATAGRAM_SIZE + " bytes: " + data.length);
+        }
+        ByteBuffer buffer = this.acquireBuffer();
+        buffer.put(data);
+        buffer.flip();
+        this.send(buffer, address);
+        this.releaseBuffer(buffer);
+    }
+
+    /**
+     * Writes a {@link BinaryPacket} into a direct buffer and sends it as one datagram
+     * <p>When the transport has a {@link PacketRegistry}, the packet's id is written first so the registry on the other end can dispatch it</p>
+     *
+     * @param packet the packet to send
+     * @param address the address to send the datagram to
+     */
+    public void send(BinaryPacket packet, SocketAddress address) {
+        synchronized (this.sendWriter) {
+            this.send(this.encode(packet), address);
+        }
+    }
+
+    /**
+     * Queues the bytes of {@code data} from its position to its limit to be sent to {@code address} by the next {@link Transport#flush()}
+     * <p>Messages that don't fit in a batch by themselves are sent right away</p>
+     *
+     * @param data the bytes to send, the position is moved to the limit
+     * @param address the address to send the message to
+     */
+    public void queue(ByteBuffer data, SocketAddress address) {
+        synchronized (this.batches) {
+            Batch batch = this.reserve(data.remaining(), address);
+            if (batch == null) {
+                this.send(data, address);
+            } else {
+                batch.buffer.put(data);
+            }
+        }
+    }
+
+    /**
+     * Queues bytes to be sent to {@code address} by the next {@link Transport#flush()}
+     *
+     * @param data the bytes to send
+     * @param address the address to send the message to
+     */
+    public void queue(byte[] data, SocketAddress address) {
+        synchronized (this.batches) {
+            Batch batch = this.reserve(data.length, address);
+            if (batch == null) {
+                this.send(data, address);
+            } else {
+                batch.buffer.put(data);
+            }
+        }
+    }
+
+    /**
+     * Queues a {@link BinaryPacket} to be sent to {@code address} by the next {@link Transport#flush()}
+     *
+     * @param packet the packet to send
+     * @param address the address to send the packet to
+     */
+    public void queue(BinaryPacket packet, SocketAddress address) {
+        synchronized (this.sendWriter) {
+            this.queue(this.encode(packet), address);
+        }
+    }
+
+    /**
+     * Sends every queued message, usually called at the end of every tick
+     */
+    public void flush() {
+        synchronized (this.batches) {
+            for (int i = 0; i < this.pendingCount; i++) {
+                Batch batch = this.pending[i];
+                if (batch.count > 0) this.sendBatch(batch);
+                batch.pending = false;
+                this.pending[i] = null;
+            }
+            this.pendingCount = 0;
+        }
+    }
+
+    /**
+     * Sets the size batched datagrams are kept under, queued messages are sent first
+     *
+     * @param mtu the size in bytes
+     */
+    public void setMtu(int mtu) {
+        if (mtu < 4 || mtu > MAX_DATAGRAM_SIZE) {
+            throw new IllegalArgumentException("The MTU has to be between 4 and " + MAX_DATAGRAM_SIZE + ": " + mtu);
+        }
+        synchronized (this.batches) {
+            this.flush();
+            this.mtu = mtu;
+        }
+    }
+
+    /**
+     * Used to get the size batched datagrams are kept under
+     *
+     * @return the size in bytes
+     */
+    public int getMtu() {
+        return this.mtu;
+    }
+
+    /**
+     * Writes a {@link BinaryPacket} into the send buffer, after its id when there is a registry, must hold the lock on {@code sendWriter}
+     */
+    private ByteBuffer encode(BinaryPacket packet) {
+        PacketRegistry registry = this.registry;
+        this.sendBuffer.clear();
+        this.sendWriter.wrap(this.sendBuffer);
+        if (registry != null) {
+            registry.write(packet, this.sendWriter);
+        } else {
+            packet.write(this.sendWriter);
+        }
+        this.sendBuffer.flip();
+        return this.sendBuffer;
+    }
+
+    /**
+     * Makes room for a message of {@code length} bytes in the batch for {@code address} and writes its length, must hold the lock on {@code batches}
+     *
+     * @return the batch to put the message in, or {@code null} if it is too big to be batched
+     */
+    private Batch reserve(int length, SocketAddress address) {
+        if (length > this.mtu - 3) return null;
+
+        Batch batch = this.batches.get(address);
+        if (batch == null) {
+            batch = new Batch();
+            batch.address = address;
+            this.batches.put(address, batch);
+        }
+        if (batch.count > 0 && batch.buffer.remaining() < length + 2) {
+            this.sendBatch(batch);
+        }
+        if (batch.count == 0) {
+            if (batch.buffer == null || batch.buffer.capacity() != this.mtu) {
+                batch.buffer = ByteBuffer.allocateDirect(this.mtu);
+            }
+            batch.buffer.clear();
+            batch.buffer.put(BATCH);
+        }
+        if (!batch.pending) {
+            if (this.pendingCount == this.pending.length) {
+                this.pending = Arrays.copyOf(this.pending, this.pending.length * 2);
+            }
+            this.pending[this.pendingCount++] = batch;
+            batch.pending = true;
+        }
+
+        batch.buffer.putShort((short)length);
+        batch.count++;
+        return batch;
+    }
+
+    /**
+     * Sends a batch, without the batch header if it only holds one message that can't be mistaken for a batch
+     */
+    private void sendBatch(Batch batch) {
+        ByteBuffer buffer = batch.buffer;
+        buffer.flip();
+        if (batch.count == 1 && (buffer.limit() == 3 || buffer.get(3) != BATCH)) {
+            buffer.position(3);
+        }
+        this.write(buffer, batch.address);
+        batch.count = 0;
+    }
+
+    /**
+     * Sets the registry that binary packets are sent and received with
+     * <p>{@link GameServer} and {@link GameClient} dispatch every received datagram through the registry once one is set, instead of calling {@code serverRun} or {@code clientRun}</p>
+     *
+     * @param registry the registry, or {@code null} to go back to string packets
+     */
+    public void setRegistry(PacketRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Used to get the registry that binary packets are sent and received with
+     *
+     * @return the registry, or {@code null} if there is none
+     */
+    public PacketRegistry getRegistry() {
+        return this.registry;
+    }
+
+    /**
+     * Used to get a cleared direct buffer of {@link Transport#MAX_DATAGRAM_SIZE} bytes to write a datagram into
+     * <p>Give it back with {@link Transport#releaseBuffer(ByteBuffer)} once it is sent</p>
+     *
+     * @return a buffer from the pool, or a new one if the pool is empty
+     */
+    public ByteBuffer acquireBuffer() {
+        synchronized (this.pool) {
+            if (this.pooled > 0) {
+                ByteBuffer buffer = this.pool[--this.pooled];
+                this.pool[this.pooled] = null;
+                buffer.clear();
+                return buffer;
+            }
+        }
+        return ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+    }
+
+    /**
+     * Gives a buffer from {@link Transport#acquireBuffer()} back to the pool
+     *
+     * @param buffer the buffer to give back
+     */
+    public void releaseBuffer(ByteBuffer buffer) {
+        synchronized (this.pool) {
+            if (this.pooled < this.pool.length) {
+                this.pool[this.pooled++] = buffer;
+            }
+        }
+    }
+
+    /**
+     * Used to get the address the transport is listening on
+     *
+     * @return the local address, or {@code null} if it couldn't be found
+     */
+    public SocketAddress getLocalAddress() {
+        try {
+            return this.channel.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stops receiving and closes the channel
+     */
+    public void close() {
+        this.open = false;
+        try {
+            this.selector.close();
+            this.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package gamengine.time;
+
+/**
+ * A class that decides how the game loop waits between ticks
+ * <p>Every pacer keeps track of how late it wakes up, so different pacers can be compared on the same machine</p>
+ */
+public abstract class FramePacer {
+
+    private long waits = 0;
+    private long totalJitter = 0;
+    private long maxJitter = 0;
+
+    /**
+     * Used for instantiating a {@link FramePacer}
+     */
+    public FramePacer() {
+
+    }
+
+    /**
+     * Waits until {@link System#nanoTime()} reaches {@code deadline} and records how late the wait returned
+     *
+     * @param deadline the time in nanoseconds at which to stop waiting
+     */
+    public void waitUntil(long deadline) {
+        if (System.nanoTime() >= deadline) return;
+
+        this.pause(deadline);
+
+        long jitter = Math.abs(System.nanoTime() - deadline);
+        this.waits++;
+        this.totalJitter += jitter;
+        if (jitter > this.maxJitter) this.maxJitter = jitter;
+    }
+
+    /**
+     * This function is called to wait until {@code deadline}
+     * <p>It may return slightly before or after {@code deadline}</p>
+     *
+     * @param deadline the time in nanoseconds at which to stop waiting
+     */
+    protected abstract void pause(long deadline);
+
+    /**
+     * Used to find how far from the deadline the pacer usually wakes up
+     * 
+     * @return the average jitter in nanoseconds
+     */
+    public long getAverageJitter() {
+        if (this.waits == 0) return 0;
+        return this.totalJitter / this.waits;
+    }
+
+    /**
+     * Used to find the furthest from the deadline the pacer has woken up
+     * 
+     * @return the maximum jitter in nanoseconds
+     */
+    public long getMaxJitter() {
+        return this.maxJitter;
+    }
+
+    /**
+     * Used to find how many times the pacer has waited
+     * 
+     * @return the number of waits that were recorded
+     */
+    public long getWaits() {
+        return this.waits;
+    }
+
+    /**
+     * Clears all the recorded jitter
+     */
+    public void resetJitter() {
+        this.waits = 0;
+        this.totalJitter = 0;
+        this.maxJitter = 0;
+    }
+}
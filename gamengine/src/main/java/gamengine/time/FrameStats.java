@@ -0,0 +1,128 @@
+package gamengine.time;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A class that keeps track of how fast a game is running and how long each part of a frame takes
+ */
+public class FrameStats {
+
+    /**
+     * The parts of a frame that are timed
+     */
+    public enum Phase {
+        /**
+         * Running the game logic in {@link gamengine.Game#tick()}
+         */
+        TICK,
+        /**
+         * Drawing to the {@link gamengine.gfx.Screen} in {@link gamengine.Game#render()}
+         */
+        RENDER,
+        /**
+         * Turning palette indices into RGB colors when the frame is presented
+         */
+        CONVERT,
+        /**
+         * Drawing the frame onto the window's buffer
+         */
+        BLIT,
+        /**
+         * Showing the window's buffer
+         */
+        SHOW
+    }
+
+    private Histogram[] histograms = new Histogram[Phase.values().length];
+
+    private AtomicInteger tickCount = new AtomicInteger();
+    private AtomicInteger frameCount = new AtomicInteger();
+    private volatile int ticksPerSecond = 0;
+    private volatile int framesPerSecond = 0;
+    private long lastSecond = System.nanoTime();
+
+    /**
+     * Used for instantiating a {@link FrameStats}
+     */
+    public FrameStats() {
+        for (int i = 0; i < this.histograms.length; i++) {
+            this.histograms[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Records how long a phase took
+     *
+     * @param phase the part of the frame that was timed
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(Phase phase, long nanos) {
+        this.histograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Counts a finished tick
+     */
+    public void countTick() {
+        this.tickCount.incrementAndGet();
+    }
+
+    /**
+     * Counts a finished frame
+     */
+    public void countFrame() {
+        this.frameCount.incrementAndGet();
+    }
+
+    /**
+     * Publishes the tick and frame rates once a full second has passed since the last time they were published
+     * <p>Should be called from the game loop</p>
+     *
+     * @param now the current time from {@link System#nanoTime()}
+     */
+    public void update(long now) {
+        if (now - this.lastSecond < 1000000000L) return;
+        this.lastSecond += 1000000000L;
+        if (now - this.lastSecond >= 1000000000L) this.lastSecond = now;
+
+        this.ticksPerSecond = this.tickCount.getAndSet(0);
+        this.framesPerSecond = this.frameCount.getAndSet(0);
+    }
+
+    /**
+     * Used to get the timings of a phase
+     *
+     * @param phase the part of the frame
+     * @return the {@link Histogram} of durations in nanoseconds
+     */
+    public Histogram getHistogram(Phase phase) {
+        return this.histograms[phase.ordinal()];
+    }
+
+    /**
+     * Used to find how many ticks ran during the last full second
+     * 
+     * @return the ticks per second
+     */
+    public int getTicksPerSecond() {
+        return this.ticksPerSecond;
+    }
+
+    /**
+     * Used to find how many frames were shown during the last full second
+     * 
+     * @return the frames per second
+     */
+    public int getFramesPerSecond() {
+        return this.framesPerSecond;
+    }
+
+    /**
+     * Clears the timings of every phase
+     */
+    public void reset() {
+        for (Histogram histogram: this.histograms) {
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package gamengine.time;
+
+/**
+ * A class that counts durations into fixed buckets without allocating
+ * <p>Values below 64 get their own bucket, larger values are kept to within about 3%</p>
+ * <p>Only one thread should record into a histogram, but any thread may read from it</p>
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private long[] counts = new long[(64 - SUB_BUCKET_BITS) * SUB_BUCKETS];
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    /**
+     * Used for instantiating a {@link Histogram}
+     */
+    public Histogram() {
+
+    }
+
+    /**
+     * Adds a value to the histogram
+     *
+     * @param value the value to add, usually a duration in nanoseconds
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        this.counts[Histogram.bucket(value)]++;
+        this.count++;
+        this.total += value;
+        if (value > this.max) this.max = value;
+    }
+
+    /**
+     * Used to get a percentile of all the recorded values
+     *
+     * @param percentile the percentile from 0 to 100
+     * @return the highest value of the bucket that holds the percentile, or 0 if nothing is recorded
+     */
+    public long getPercentile(double percentile) {
+        long count = this.count;
+        if (count == 0) return 0;
+
+        long rank = (long)Math.ceil(percentile / 100 * count);
+        if (rank < 1) rank = 1;
+
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) return Math.min(Histogram.highestValue(i), this.max);
+        }
+        return this.max;
+    }
+
+    /**
+     * Used to get the median of all the recorded values
+     * 
+     * @return the 50th percentile
+     */
+    public long getP50() {
+        return this.getPercentile(50);
+    }
+
+    /**
+     * Used to get the 99th percentile of all the recorded values
+     * 
+     * @return the 99th percentile
+     */
+    public long getP99() {
+        return this.getPercentile(99);
+    }
+
+    /**
+     * Used to get the largest recorded value
+     * 
+     * @return the maximum value
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Used to get the average of all the recorded values
+     * 
+     * @return the mean value, or 0 if nothing is recorded
+     */
+    public long getMean() {
+        if (this.count == 0) return 0;
+        return this.total / this.count;
+    }
+
+    /**
+     * Used to get how many values were recorded
+     * 
+     * @return the number of values
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Clears all the recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] = 0;
+        }
+        this.count = 0;
+        this.total = 0;
+        this.max = 0;
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS * 2) return (int)value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int)(value >>> shift);
+    }
+
+    private static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS * 2) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long)(bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,38 @@
+package gamengine.time;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link FramePacer} that parks the thread for most of the wait and spins for the rest
+ * <p>The spin at the end hides the wake-up latency of the scheduler</p>
+ */
+public class ParkPacer extends FramePacer {
+
+    private long spinNanos;
+
+    /**
+     * Used for instantiating a {@link ParkPacer} that spins for the last millisecond
+     */
+    public ParkPacer() {
+        this(1000000L);
+    }
+
+    /**
+     * Used for instantiating a {@link ParkPacer}
+     *
+     * @param spinNanos how many nanoseconds before the deadline to stop parking and start spinning
+     */
+    public ParkPacer(long spinNanos) {
+        this.spinNanos = spinNanos;
+    }
+
+    protected void pause(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > this.spinNanos) {
+            LockSupport.parkNanos(remaining - this.spinNanos);
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
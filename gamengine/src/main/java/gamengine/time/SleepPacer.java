@@ -0,0 +1,35 @@
+package gamengine.time;
+
+/**
+ * A {@link FramePacer} that only sleeps
+ * <p>It learns how much {@link Thread#sleep(long, int)} oversleeps and wakes up that much earlier next time</p>
+ */
+public class SleepPacer extends FramePacer {
+
+    private long oversleep = 0;
+
+    /**
+     * Used for instantiating a {@link SleepPacer}
+     */
+    public SleepPacer() {
+
+    }
+
+    protected void pause(long deadline) {
+        long target = deadline - this.oversleep;
+        long start = System.nanoTime();
+        long remaining = target - start;
+        if (remaining <= 0) return;
+
+        try {
+            Thread.sleep(remaining / 1000000L, (int)(remaining % 1000000L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        long error = System.nanoTime() - target;
+        this.oversleep += (error - this.oversleep) / 8;
+        if (this.oversleep < 0) this.oversleep = 0;
+    }
+}
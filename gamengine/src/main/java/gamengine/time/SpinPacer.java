@@ -0,0 +1,21 @@
+package gamengine.time;
+
+/**
+ * A {@link FramePacer} that busy-waits until the deadline
+ * <p>This has the lowest jitter but keeps a full core busy</p>
+ */
+public class SpinPacer extends FramePacer {
+
+    /**
+     * Used for instantiating a {@link SpinPacer}
+     */
+    public SpinPacer() {
+
+    }
+
+    protected void pause(long deadline) {
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}